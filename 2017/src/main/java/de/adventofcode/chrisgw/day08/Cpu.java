@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day08;
 import de.adventofcode.chrisgw.day08.cpuInstruction.ConditionalDecrementCpuRegisterInstruction;
 import de.adventofcode.chrisgw.day08.cpuInstruction.ConditionalIncrementCpuRegisterInstruction;
 import de.adventofcode.chrisgw.day08.cpuInstruction.CpuRegisterInstruction;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 import java.util.HashMap;
 import java.util.List;
@@ -20,6 +21,7 @@ public class Cpu {
 
 
     private Map<String, CpuRegister> cpuRegisters = new HashMap<>();
+    private RegisterMachine registerMachine = new RegisterMachine();
 
     public List<CpuRegisterInstruction> parseCpuRegisterInstructions(List<String> cpuRegisterInsturctionLines) {
         return cpuRegisterInsturctionLines.stream().map(this::parseCpuRegisterInstruction).collect(Collectors.toList());
@@ -77,8 +79,19 @@ public class Cpu {
     }
 
 
+    /**
+     * Compiles the given instructions into this cpu's register machine and runs them, instead of executing each
+     * instruction object on its own.
+     */
+    public void executeCpuRegisterInstructions(List<CpuRegisterInstruction> cpuRegisterInstructions) {
+        registerMachine.clearInstructions();
+        cpuRegisterInstructions.forEach(instruction -> instruction.compileCpuRegisterInstruction(registerMachine));
+        registerMachine.run();
+    }
+
+
     public CpuRegister findCpuRegister(String registerName) {
-        return cpuRegisters.computeIfAbsent(registerName, CpuRegister::new);
+        return cpuRegisters.computeIfAbsent(registerName, name -> new CpuRegister(name, registerMachine));
     }
 
     public int findLargestCpuRegisterValue() {
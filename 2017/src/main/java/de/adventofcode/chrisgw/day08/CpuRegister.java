@@ -1,30 +1,37 @@
 package de.adventofcode.chrisgw.day08;
 
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
+
+
 public class CpuRegister {
 
     private String name;
-    private int value = 0;
-    private int highestValue = Integer.MIN_VALUE;
+    private RegisterMachine registerMachine;
+    private int valueRegister;
+    private int highestValueRegister;
 
 
-    public CpuRegister(String name) {
+    public CpuRegister(String name, RegisterMachine registerMachine) {
         this.name = name;
+        this.registerMachine = registerMachine;
+        this.valueRegister = registerMachine.registerIndex(name);
+        this.highestValueRegister = registerMachine.allocateRegister(Integer.MIN_VALUE);
     }
 
 
     public void incrementValue(int incrementValue) {
-        this.value += incrementValue;
+        registerMachine.setRegisterValue(valueRegister, getValue() + incrementValue);
         checkHighestValue();
     }
 
     public void decrementValue(int decrementValue) {
-        this.value -= decrementValue;
+        registerMachine.setRegisterValue(valueRegister, getValue() - decrementValue);
         checkHighestValue();
     }
 
     private void checkHighestValue() {
-        if (value > highestValue) {
-            highestValue = value;
+        if (getValue() > getHighestValue()) {
+            registerMachine.setRegisterValue(highestValueRegister, getValue());
         }
     }
 
@@ -34,13 +41,22 @@ public class CpuRegister {
     }
 
     public int getValue() {
-        return value;
+        return (int) registerMachine.getRegisterValue(valueRegister);
     }
 
     public int getHighestValue() {
-        return highestValue;
+        return (int) registerMachine.getRegisterValue(highestValueRegister);
+    }
+
+
+    public int getValueRegister() {
+        return valueRegister;
+    }
+
+    public int getHighestValueRegister() {
+        return highestValueRegister;
     }
-    
+
 
     @Override
     public boolean equals(Object o) {
@@ -65,7 +81,7 @@ public class CpuRegister {
 
     @Override
     public String toString() {
-        return name + "=" + value;
+        return name + "=" + getValue();
     }
 
 }
@@ -1,5 +1,7 @@
 package de.adventofcode.chrisgw.day08;
 
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
+
 import java.util.function.Predicate;
 
 
@@ -8,43 +10,49 @@ public class CpuRegisterInstructionCondition {
     private CpuRegister referenceCpuRegister;
     private Predicate<CpuRegister> condition;
 
+    private int compareValue;
+    private int skipInstructionOpCode;
+
 
-    private CpuRegisterInstructionCondition(CpuRegister referenceCpuRegister, Predicate<CpuRegister> condition) {
+    private CpuRegisterInstructionCondition(CpuRegister referenceCpuRegister, Predicate<CpuRegister> condition,
+            int compareValue, int skipInstructionOpCode) {
         this.referenceCpuRegister = referenceCpuRegister;
         this.condition = condition;
+        this.compareValue = compareValue;
+        this.skipInstructionOpCode = skipInstructionOpCode;
     }
 
 
     public static CpuRegisterInstructionCondition greater(CpuRegister referenceCpuRegister, int value) {
         return new CpuRegisterInstructionCondition(referenceCpuRegister,
-                (cpuRegister) -> cpuRegister.getValue() > value);
+                (cpuRegister) -> cpuRegister.getValue() > value, value, RegisterMachine.JLE);
     }
 
     public static CpuRegisterInstructionCondition greaterEquals(CpuRegister referenceCpuRegister, int value) {
         return new CpuRegisterInstructionCondition(referenceCpuRegister,
-                (cpuRegister) -> cpuRegister.getValue() >= value);
+                (cpuRegister) -> cpuRegister.getValue() >= value, value, RegisterMachine.JLT);
     }
 
 
     public static CpuRegisterInstructionCondition smaller(CpuRegister referenceCpuRegister, int value) {
         return new CpuRegisterInstructionCondition(referenceCpuRegister,
-                (cpuRegister) -> cpuRegister.getValue() < value);
+                (cpuRegister) -> cpuRegister.getValue() < value, value, RegisterMachine.JGE);
     }
 
     public static CpuRegisterInstructionCondition smallerEquals(CpuRegister referenceCpuRegister, int value) {
         return new CpuRegisterInstructionCondition(referenceCpuRegister,
-                (cpuRegister) -> cpuRegister.getValue() <= value);
+                (cpuRegister) -> cpuRegister.getValue() <= value, value, RegisterMachine.JGT);
     }
 
 
     public static CpuRegisterInstructionCondition equals(CpuRegister referenceCpuRegister, int value) {
         return new CpuRegisterInstructionCondition(referenceCpuRegister,
-                (cpuRegister) -> cpuRegister.getValue() == value);
+                (cpuRegister) -> cpuRegister.getValue() == value, value, RegisterMachine.JNE);
     }
 
     public static CpuRegisterInstructionCondition notEquals(CpuRegister referenceCpuRegister, int value) {
         return new CpuRegisterInstructionCondition(referenceCpuRegister,
-                (cpuRegister) -> cpuRegister.getValue() != value);
+                (cpuRegister) -> cpuRegister.getValue() != value, value, RegisterMachine.JEQ);
     }
 
 
@@ -52,6 +60,19 @@ public class CpuRegisterInstructionCondition {
         return condition.test(referenceCpuRegister);
     }
 
+    /**
+     * Compiles a jump over the given conditional instruction, which is taken when this condition fails.
+     */
+    public void compileCpuRegisterInstructionCondition(RegisterMachine registerMachine,
+            Runnable compileConditionalInstruction) {
+        int skipInstruction = registerMachine.emit(skipInstructionOpCode, referenceCpuRegister.getValueRegister(),
+                registerMachine.constant(compareValue));
+        compileConditionalInstruction.run();
+        int skippedInstructionCount = registerMachine.getInstructionCount() - skipInstruction;
+        registerMachine.setOperandAt(skipInstruction, 2, registerMachine.constant(skippedInstructionCount));
+    }
+
+
     public CpuRegister getReferenceCpuRegister() {
         return referenceCpuRegister;
     }
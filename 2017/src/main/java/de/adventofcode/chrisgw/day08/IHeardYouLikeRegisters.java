@@ -64,6 +64,11 @@ public class IHeardYouLikeRegisters {
     }
 
 
+    public void executeCpuRegisterInstructions(List<CpuRegisterInstruction> cpuRegisterInstructions) {
+        cpu.executeCpuRegisterInstructions(cpuRegisterInstructions);
+    }
+
+
     public CpuRegister findCpuRegister(String registerName) {
         return cpu.findCpuRegister(registerName);
     }
@@ -2,6 +2,7 @@ package de.adventofcode.chrisgw.day08.cpuInstruction;
 
 import de.adventofcode.chrisgw.day08.CpuRegister;
 import de.adventofcode.chrisgw.day08.CpuRegisterInstructionCondition;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class ConditionalDecrementCpuRegisterInstruction extends DecrementCpuRegisterInstruction
@@ -29,4 +30,10 @@ public class ConditionalDecrementCpuRegisterInstruction extends DecrementCpuRegi
         }
     }
 
+    @Override
+    public void compileCpuRegisterInstruction(RegisterMachine registerMachine) {
+        instructionCondition.compileCpuRegisterInstructionCondition(registerMachine,
+                () -> super.compileCpuRegisterInstruction(registerMachine));
+    }
+
 }
@@ -1,8 +1,12 @@
 package de.adventofcode.chrisgw.day08.cpuInstruction;
 
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
+
 
 public interface CpuRegisterInstruction {
 
     void executeCpuRegisterInstruction();
 
+    void compileCpuRegisterInstruction(RegisterMachine registerMachine);
+
 }
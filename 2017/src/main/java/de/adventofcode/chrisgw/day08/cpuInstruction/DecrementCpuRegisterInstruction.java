@@ -1,6 +1,7 @@
 package de.adventofcode.chrisgw.day08.cpuInstruction;
 
 import de.adventofcode.chrisgw.day08.CpuRegister;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class DecrementCpuRegisterInstruction implements CpuRegisterInstruction {
@@ -20,4 +21,11 @@ public class DecrementCpuRegisterInstruction implements CpuRegisterInstruction {
         cpuRegister.decrementValue(value);
     }
 
+    @Override
+    public void compileCpuRegisterInstruction(RegisterMachine registerMachine) {
+        int valueRegister = cpuRegister.getValueRegister();
+        registerMachine.emit(RegisterMachine.SUB, valueRegister, registerMachine.constant(value));
+        registerMachine.emit(RegisterMachine.MAX, cpuRegister.getHighestValueRegister(), valueRegister);
+    }
+
 }
@@ -1,6 +1,7 @@
 package de.adventofcode.chrisgw.day08.cpuInstruction;
 
 import de.adventofcode.chrisgw.day08.CpuRegister;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class IncrementCpuRegisterInstruction implements CpuRegisterInstruction {
@@ -20,4 +21,11 @@ public class IncrementCpuRegisterInstruction implements CpuRegisterInstruction {
         cpuRegister.incrementValue(value);
     }
 
+    @Override
+    public void compileCpuRegisterInstruction(RegisterMachine registerMachine) {
+        int valueRegister = cpuRegister.getValueRegister();
+        registerMachine.emit(RegisterMachine.ADD, valueRegister, registerMachine.constant(value));
+        registerMachine.emit(RegisterMachine.MAX, cpuRegister.getHighestValueRegister(), valueRegister);
+    }
+
 }
@@ -1,9 +1,16 @@
 package de.adventofcode.chrisgw.day18;
 
 import de.adventofcode.chrisgw.day18.command.*;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -133,24 +140,27 @@ import java.util.regex.Pattern;
  */
 public class Duet {
 
-    private Map<Character, Long> registerMap;
+    public static final int SEND_BATCH_SIZE = 64;
+    public static final int RECEIVE_QUEUE_CAPACITY = 1 << 12;
+
+    private final RegisterMachine registerMachine;
     private Duet partnerDuet;
 
-    private Deque<Long> playedSounds;
+    private OptionalLong lastPlayedSound = OptionalLong.empty();
+    private final LongSpscQueue receivedValues = new LongSpscQueue(RECEIVE_QUEUE_CAPACITY);
     private int sendCount = 0;
 
     private List<DuetCommand> duetCommands;
-    private int duetCommandPointer;
 
     private boolean locked = false;
+    private volatile boolean finished = false;
     private OptionalLong firstRecoverdFrequenz = OptionalLong.empty();
 
 
     public Duet(List<DuetCommand> duetCommands) {
         this.duetCommands = new ArrayList<>(duetCommands);
-        this.registerMap = new HashMap<>();
-        this.playedSounds = new ConcurrentLinkedDeque<>();
-        this.duetCommandPointer = 0;
+        this.registerMachine = RegisterMachine.withLetterRegisters();
+        this.duetCommands.forEach(duetCommand -> duetCommand.compileDuetCommand(registerMachine));
     }
 
 
@@ -223,44 +233,179 @@ public class Duet {
 
 
     public long getRegisterValue(char register) {
-        return registerMap.computeIfAbsent(register, (r) -> 0L);
+        return registerMachine.getRegisterValue(registerMachine.registerIndex(register));
     }
 
     public void setRegisterValue(char targetRegister, long registerValue) {
-        registerMap.put(targetRegister, registerValue);
+        registerMachine.setRegisterValue(registerMachine.registerIndex(targetRegister), registerValue);
     }
 
 
     public void playSound(long frequenz) {
-        playedSounds.add(frequenz);
-        sendCount++;
+        lastPlayedSound = OptionalLong.of(frequenz);
     }
 
     public long recoverFrequency() {
         if (!firstRecoverdFrequenz.isPresent()) {
-            firstRecoverdFrequenz = OptionalLong.of(playedSounds.peekLast());
+            firstRecoverdFrequenz = lastPlayedSound;
         }
-        return playedSounds.pollLast();
-    }
-
-    public void jumpInstruction(long jump) {
-        duetCommandPointer += jump - 1;
+        return lastPlayedSound.getAsLong();
     }
 
-
     public DuetCommand nextDuetCommand() {
-        DuetCommand duetCommand = duetCommands.get(duetCommandPointer++);
-        duetCommand.executeDuetCommand(this);
+        DuetCommand duetCommand = duetCommands.get(registerMachine.getInstructionPointer());
+        int opCode = registerMachine.step();
+        if (opCode == RegisterMachine.SND) {
+            executeSendCommand();
+        } else if (opCode == RegisterMachine.RCV) {
+            executeRecoverCommand();
+        }
         return duetCommand;
     }
 
     public boolean hasNextDuetCommand() {
-        return !firstRecoverdFrequenz.isPresent() && duetCommandPointer < duetCommands.size();
+        return !firstRecoverdFrequenz.isPresent() && !registerMachine.isHalted();
+    }
+
+    /**
+     * Runs the compiled duet commands until they finish, recover their first frequency or wait for their partner.
+     */
+    public void run() {
+        while (hasNextDuetCommand()) {
+            int opCode = registerMachine.run();
+            if (opCode == RegisterMachine.SND) {
+                executeSendCommand();
+            } else if (opCode == RegisterMachine.RCV) {
+                executeRecoverCommand();
+                if (locked) {
+                    return;
+                }
+            }
+        }
+    }
+
+
+    private void executeSendCommand() {
+        long registerValue = registerMachine.operandValue(0);
+        if (partnerDuet != null) {
+            partnerDuet.receivedValues.offerGrowing(registerValue); // send, the partner receives on this thread
+        } else {
+            playSound(registerValue);
+        }
+        sendCount++;
+        registerMachine.completeInstruction();
+    }
+
+    private void executeRecoverCommand() {
+        if (partnerDuet != null && !receivedValues.isEmpty()) {
+            registerMachine.receive(receivedValues.poll());
+            locked = false;
+        } else if (partnerDuet != null) {
+            locked = true; // try to repeat recover command next time
+        } else {
+            if (registerMachine.operandValue(0) != 0) {
+                recoverFrequency();
+            }
+            registerMachine.completeInstruction();
+        }
+    }
+
+
+    /**
+     * Runs this duet and its partner duet on two threads of the given factory, which may create platform or virtual
+     * threads. Each duet sends its values in batches into the single producer single consumer queue of its partner
+     * and both stop at the first deadlock, when both finished or when the first duet fails.
+     */
+    public void runConcurrentlyWithPartnerDuet(ThreadFactory threadFactory) {
+        if (partnerDuet == null) {
+            throw new IllegalStateException("Duet has no partner duet to run with");
+        }
+        DuetDeadlockDetector deadlockDetector = new DuetDeadlockDetector();
+        ExecutorService executorService = Executors.newFixedThreadPool(2, threadFactory);
+        CompletionService<Void> duetCompletion = new ExecutorCompletionService<>(executorService);
+        List<Future<Void>> duetRuns = new ArrayList<>(2);
+        try {
+            duetRuns.add(duetCompletion.submit(() -> this.runConcurrently(deadlockDetector), null));
+            duetRuns.add(duetCompletion.submit(() -> partnerDuet.runConcurrently(deadlockDetector), null));
+            for (int i = 0; i < duetRuns.size(); i++) {
+                duetCompletion.take().get(); // in completion order, so the first failure stops both duets
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running duets concurrently", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to run duets concurrently", e.getCause());
+        } finally {
+            deadlockDetector.fail(); // no-op for finished duets, stops a still waiting duet
+            duetRuns.forEach(duetRun -> duetRun.cancel(true));
+            executorService.shutdownNow();
+        }
+    }
+
+    public void runConcurrentlyWithPartnerDuet() {
+        ThreadFactory defaultThreadFactory = Executors.defaultThreadFactory();
+        runConcurrentlyWithPartnerDuet(runnable -> {
+            Thread thread = defaultThreadFactory.newThread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void runConcurrently(DuetDeadlockDetector deadlockDetector) {
+        boolean stopped = false;
+        try {
+            runConcurrentlyUntilStopped(deadlockDetector);
+            stopped = true;
+        } finally {
+            if (!stopped) {
+                deadlockDetector.fail(); // the partner would wait forever for values of this duet
+            }
+        }
+    }
+
+    private void runConcurrentlyUntilStopped(DuetDeadlockDetector deadlockDetector) {
+        long[] sendBatch = new long[SEND_BATCH_SIZE];
+        int batchSize = 0;
+        while (true) {
+            int opCode = registerMachine.run();
+            if (opCode == RegisterMachine.SND) {
+                sendBatch[batchSize++] = registerMachine.operandValue(0);
+                sendCount++;
+                registerMachine.completeInstruction();
+                if (batchSize == SEND_BATCH_SIZE) {
+                    partnerDuet.receivedValues.offer(sendBatch, 0, batchSize);
+                    batchSize = 0;
+                }
+            } else if (opCode == RegisterMachine.RCV) {
+                if (receivedValues.isEmpty()) {
+                    partnerDuet.receivedValues.offer(sendBatch, 0, batchSize); // before waiting for the partner
+                    batchSize = 0;
+                    if (!deadlockDetector.awaitReceivedValue(this)) {
+                        locked = true;
+                        return;
+                    }
+                }
+                registerMachine.receive(receivedValues.poll());
+            } else {
+                partnerDuet.receivedValues.offer(sendBatch, 0, batchSize);
+                finished = true;
+                deadlockDetector.finish();
+                return;
+            }
+        }
     }
 
 
     public boolean canRecoverFrequency() {
-        return playedSounds.size() > 0;
+        return lastPlayedSound.isPresent();
+    }
+
+    LongSpscQueue getReceivedValues() {
+        return receivedValues;
+    }
+
+    public boolean isFinished() {
+        return finished;
     }
 
 
@@ -284,6 +429,7 @@ public class Duet {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
+        int duetCommandPointer = registerMachine.getInstructionPointer();
         DuetCommand currentDuetCommand = duetCommands.get(duetCommandPointer);
         if (currentDuetCommand instanceof JumpRegisterDuetCommand) {
             int from = Math.max(0, duetCommandPointer - 5);
@@ -1,8 +1,11 @@
 package de.adventofcode.chrisgw.day18;
 
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
+
+
 public interface DuetCommand {
 
-    void executeDuetCommand(Duet duet);
+    void compileDuetCommand(RegisterMachine registerMachine);
 
     String toString(Duet duet);
 
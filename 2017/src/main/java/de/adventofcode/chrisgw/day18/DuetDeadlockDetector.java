@@ -0,0 +1,77 @@
+package de.adventofcode.chrisgw.day18;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Shared by two concurrently running partner duets. A deadlock is detected, when both duets wait in a rcv command
+ * (or one has finished) and both of their receive queues stay empty, while no duet changed its waiting state.
+ */
+public class DuetDeadlockDetector {
+
+    private static final long WAITING = 1;
+    private static final long VERSION = 1L << 32;
+
+    private final AtomicLong waitingState = new AtomicLong(); // version << 32 | waiting duet count
+    private volatile boolean deadlock = false;
+    private volatile boolean failed = false;
+
+
+    /**
+     * Waits until the given duet can receive a value.
+     *
+     * @return false, if both duets are deadlocked, a duet failed or the waiting thread is interrupted
+     */
+    public boolean awaitReceivedValue(Duet duet) {
+        LongSpscQueue receivedValues = duet.getReceivedValues();
+        waitingState.addAndGet(VERSION + WAITING);
+        while (!deadlock && !failed && !Thread.currentThread().isInterrupted()) {
+            if (!receivedValues.isEmpty()) {
+                waitingState.addAndGet(VERSION - WAITING);
+                return true;
+            }
+            if (isDeadlock(duet)) {
+                deadlock = true;
+                return false;
+            }
+            Thread.yield();
+        }
+        return false;
+    }
+
+    private boolean isDeadlock(Duet duet) {
+        long state = waitingState.get();
+        if ((state & (VERSION - 1)) < 2) {
+            return false;
+        }
+        Duet partnerDuet = duet.getPartnerDuet();
+        boolean nothingToReceive = duet.getReceivedValues().isEmpty() //
+                && (partnerDuet.isFinished() || partnerDuet.getReceivedValues().isEmpty());
+        return nothingToReceive && waitingState.get() == state;
+    }
+
+    /**
+     * A finished duet never sends again, so it counts as waiting forever.
+     */
+    public void finish() {
+        waitingState.addAndGet(VERSION + WAITING);
+    }
+
+
+    /**
+     * A failed duet never sends again, so its partner stops waiting instead of detecting a deadlock.
+     */
+    public void fail() {
+        failed = true;
+    }
+
+
+    public boolean isDeadlock() {
+        return deadlock;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+}
@@ -0,0 +1,113 @@
+package de.adventofcode.chrisgw.day18;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Bounded lock free queue of primitive longs for exactly one producer and one consumer thread. Both sides cache the
+ * other side's index and only publish their own index with an ordered write. If producer and consumer are the same
+ * thread, {@link #offerGrowing(long)} grows the queue instead of waiting for a consumer, which would never come.
+ */
+public class LongSpscQueue {
+
+    private long[] buffer;
+    private int mask;
+
+    private final AtomicLong head = new AtomicLong(); // next index to poll, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next index to offer, written by the producer
+
+    private long cachedHead; // producer's view of head
+    private long cachedTail; // consumer's view of tail
+
+
+    public LongSpscQueue(int capacity) {
+        int powerOfTwoCapacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new long[powerOfTwoCapacity];
+        this.mask = powerOfTwoCapacity - 1;
+    }
+
+
+    /**
+     * Offers the given value and waits for the consumer as long as the queue is full.
+     *
+     * @throws IllegalStateException if the producer thread is interrupted while waiting
+     */
+    public void offer(long value) {
+        long currentTail = tail.get();
+        awaitFreeSlot(currentTail);
+        buffer[(int) currentTail & mask] = value;
+        tail.lazySet(currentTail + 1);
+    }
+
+    /**
+     * Offers the given values as one batch, which is published with a single ordered write. Waits for the consumer
+     * as long as the queue is full.
+     *
+     * @throws IllegalStateException if the producer thread is interrupted while waiting
+     */
+    public void offer(long[] values, int offset, int length) {
+        long currentTail = tail.get();
+        for (int i = offset; i < offset + length; i++) {
+            if (currentTail - cachedHead == buffer.length) {
+                tail.lazySet(currentTail); // let the consumer drain what is already offered
+                awaitFreeSlot(currentTail);
+            }
+            buffer[(int) currentTail & mask] = values[i];
+            currentTail++;
+        }
+        tail.lazySet(currentTail);
+    }
+
+    private void awaitFreeSlot(long currentTail) {
+        while (currentTail - cachedHead == buffer.length && currentTail - (cachedHead = head.get()) == buffer.length) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted while waiting for the consumer of a full LongSpscQueue");
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Offers the given value and doubles the capacity, if the queue is full. Only valid, if the producer is also the
+     * consumer thread.
+     */
+    public void offerGrowing(long value) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() == buffer.length) {
+            grow();
+        }
+        buffer[(int) currentTail & mask] = value;
+        tail.lazySet(currentTail + 1);
+    }
+
+    private void grow() {
+        long[] grownBuffer = new long[2 * buffer.length];
+        int grownMask = grownBuffer.length - 1;
+        for (long index = head.get(); index < tail.get(); index++) {
+            grownBuffer[(int) index & grownMask] = buffer[(int) index & mask];
+        }
+        buffer = grownBuffer;
+        mask = grownMask;
+    }
+
+    public long poll() {
+        long currentHead = head.get();
+        if (currentHead == cachedTail && currentHead == (cachedTail = tail.get())) {
+            throw new NoSuchElementException("LongSpscQueue is empty");
+        }
+        long value = buffer[(int) currentHead & mask];
+        head.lazySet(currentHead + 1);
+        return value;
+    }
+
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+}
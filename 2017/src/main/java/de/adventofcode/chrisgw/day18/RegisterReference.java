@@ -1,5 +1,8 @@
 package de.adventofcode.chrisgw.day18;
 
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
+
+
 public class RegisterReference {
 
     public static final String REGISTER_REFERENCE_PATTERN = "((\\-?\\d+)|([a-z]))";
@@ -21,6 +24,11 @@ public class RegisterReference {
     }
 
 
+    public int compileOperand(RegisterMachine registerMachine) {
+        return registerMachine.operand(registerReference);
+    }
+
+
     public char getRegisterName() {
         return registerReference.charAt(0);
     }
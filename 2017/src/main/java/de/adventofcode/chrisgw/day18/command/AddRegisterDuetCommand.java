@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day18.command;
 import de.adventofcode.chrisgw.day18.Duet;
 import de.adventofcode.chrisgw.day18.DuetCommand;
 import de.adventofcode.chrisgw.day18.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class AddRegisterDuetCommand implements DuetCommand {
@@ -18,10 +19,9 @@ public class AddRegisterDuetCommand implements DuetCommand {
 
 
     @Override
-    public void executeDuetCommand(Duet duet) {
-        long oldRegisterValue = targetRegister.getValue(duet);
-        long newRegisterValue = oldRegisterValue + addendRegister.getValue(duet);
-        duet.setRegisterValue(targetRegister.getRegisterName(), newRegisterValue);
+    public void compileDuetCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.ADD, targetRegister.compileOperand(registerMachine),
+                addendRegister.compileOperand(registerMachine));
     }
 
     @Override
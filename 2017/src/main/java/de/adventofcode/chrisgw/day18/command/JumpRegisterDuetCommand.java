@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day18.command;
 import de.adventofcode.chrisgw.day18.Duet;
 import de.adventofcode.chrisgw.day18.DuetCommand;
 import de.adventofcode.chrisgw.day18.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class JumpRegisterDuetCommand implements DuetCommand {
@@ -18,12 +19,9 @@ public class JumpRegisterDuetCommand implements DuetCommand {
 
 
     @Override
-    public void executeDuetCommand(Duet duet) {
-        long registerValue = targetRegister.getValue(duet);
-        if (registerValue > 0) {
-            long jump = jumpRegister.getValue(duet);
-            duet.jumpInstruction(jump);
-        }
+    public void compileDuetCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.JGZ, targetRegister.compileOperand(registerMachine),
+                jumpRegister.compileOperand(registerMachine));
     }
 
     @Override
@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day18.command;
 import de.adventofcode.chrisgw.day18.Duet;
 import de.adventofcode.chrisgw.day18.DuetCommand;
 import de.adventofcode.chrisgw.day18.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class ModuloRegisterDuetCommand implements DuetCommand {
@@ -17,12 +18,10 @@ public class ModuloRegisterDuetCommand implements DuetCommand {
     }
 
 
-
     @Override
-    public void executeDuetCommand(Duet duet) {
-        long oldRegisterValue = targetRegister.getValue(duet);
-        long newRegisterValue = oldRegisterValue % quotientRegister.getValue(duet);
-        duet.setRegisterValue(targetRegister.getRegisterName(), newRegisterValue);
+    public void compileDuetCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.MOD, targetRegister.compileOperand(registerMachine),
+                quotientRegister.compileOperand(registerMachine));
     }
 
     @Override
@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day18.command;
 import de.adventofcode.chrisgw.day18.Duet;
 import de.adventofcode.chrisgw.day18.DuetCommand;
 import de.adventofcode.chrisgw.day18.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class MultiplyRegisterDuetCommand implements DuetCommand {
@@ -18,11 +19,9 @@ public class MultiplyRegisterDuetCommand implements DuetCommand {
 
 
     @Override
-    public void executeDuetCommand(Duet duet) {
-        long oldRegisterValue = targetRegister.getValue(duet);
-        long factor = factorRegister.getValue(duet);
-        long newRegisterValue = oldRegisterValue * factor;
-        duet.setRegisterValue(targetRegister.getRegisterName(), newRegisterValue);
+    public void compileDuetCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.MUL, targetRegister.compileOperand(registerMachine),
+                factorRegister.compileOperand(registerMachine));
     }
 
     @Override
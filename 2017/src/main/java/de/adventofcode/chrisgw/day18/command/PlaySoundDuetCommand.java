@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day18.command;
 import de.adventofcode.chrisgw.day18.Duet;
 import de.adventofcode.chrisgw.day18.DuetCommand;
 import de.adventofcode.chrisgw.day18.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class PlaySoundDuetCommand implements DuetCommand {
@@ -16,14 +17,8 @@ public class PlaySoundDuetCommand implements DuetCommand {
 
 
     @Override
-    public void executeDuetCommand(Duet duet) {
-        long registerValue = targetRegister.getValue(duet);
-        if (duet.getPartnerDuet() != null) {
-//            System.out.println("send: " + duet);
-            duet.getPartnerDuet().playSound(registerValue); // send
-        } else {
-            duet.playSound(registerValue);
-        }
+    public void compileDuetCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.SND, targetRegister.compileOperand(registerMachine));
     }
 
     @Override
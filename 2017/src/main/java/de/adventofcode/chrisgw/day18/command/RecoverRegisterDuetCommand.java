@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day18.command;
 import de.adventofcode.chrisgw.day18.Duet;
 import de.adventofcode.chrisgw.day18.DuetCommand;
 import de.adventofcode.chrisgw.day18.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class RecoverRegisterDuetCommand implements DuetCommand {
@@ -16,21 +17,8 @@ public class RecoverRegisterDuetCommand implements DuetCommand {
 
 
     @Override
-    public void executeDuetCommand(Duet duet) {
-        if (duet.getPartnerDuet() != null && duet.canRecoverFrequency()) {
-            long registerValue = duet.recoverFrequency();
-            duet.setRegisterValue(targetRegister.getRegisterName(), registerValue);
-            duet.setLocked(false);
-//            System.out.println("unlock: " + duet);
-        } else if (duet.getPartnerDuet() != null) {
-            duet.jumpInstruction(0); // try to repeat recover command next time
-//            if (!duet.isLocked()) {
-//                System.out.println("locked: " + duet);
-//            }
-            duet.setLocked(true);
-        } else if (targetRegister.getValue(duet) != 0) {
-            duet.recoverFrequency();
-        }
+    public void compileDuetCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.RCV, targetRegister.compileOperand(registerMachine));
     }
 
     @Override
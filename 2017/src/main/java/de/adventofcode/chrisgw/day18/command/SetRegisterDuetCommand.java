@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day18.command;
 import de.adventofcode.chrisgw.day18.Duet;
 import de.adventofcode.chrisgw.day18.DuetCommand;
 import de.adventofcode.chrisgw.day18.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class SetRegisterDuetCommand implements DuetCommand {
@@ -18,9 +19,9 @@ public class SetRegisterDuetCommand implements DuetCommand {
 
 
     @Override
-    public void executeDuetCommand(Duet duet) {
-        long valueToSet = registerValueToSet.getValue(duet);
-        duet.setRegisterValue(targetRegister.getRegisterName(), valueToSet);
+    public void compileDuetCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.SET, targetRegister.compileOperand(registerMachine),
+                registerValueToSet.compileOperand(registerMachine));
     }
 
     @Override
@@ -1,9 +1,12 @@
 package de.adventofcode.chrisgw.day23;
 
 
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
+
+
 public interface CoprocessorCommand {
 
-    void executeCoprocessorCommand(CoprocessorConflagration coprocessor);
+    void compileCoprocessorCommand(RegisterMachine registerMachine);
 
     String toString(CoprocessorConflagration coprocessor);
 
@@ -2,6 +2,7 @@ package de.adventofcode.chrisgw.day23;
 
 
 import de.adventofcode.chrisgw.day23.command.*;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 import java.util.*;
 import java.util.regex.Matcher;
@@ -13,22 +14,17 @@ import java.util.regex.Pattern;
  */
 public class CoprocessorConflagration {
 
-    private Map<Character, Long> registerMap;
+    private final RegisterMachine registerMachine;
 
     private List<CoprocessorCommand> coprocessorCommands;
-    private int commandPointer;
-
-    private long multiplyCommandCounter;
-
 
     private List<Long> valuesOfRegisterH = new ArrayList<>();
 
 
     public CoprocessorConflagration(List<CoprocessorCommand> coprocessorCommands) {
         this.coprocessorCommands = new ArrayList<>(coprocessorCommands);
-        this.registerMap = new HashMap<>();
-        this.commandPointer = 0;
-        this.multiplyCommandCounter = 0;
+        this.registerMachine = RegisterMachine.withLetterRegisters();
+        this.coprocessorCommands.forEach(command -> command.compileCoprocessorCommand(registerMachine));
     }
 
 
@@ -80,38 +76,42 @@ public class CoprocessorConflagration {
 
 
     public long getRegisterValue(char register) {
-        return registerMap.computeIfAbsent(register, (r) -> 0L);
+        return registerMachine.getRegisterValue(registerMachine.registerIndex(register));
     }
 
     public void setRegisterValue(char targetRegister, long registerValue) {
-        registerMap.put(targetRegister, registerValue);
-        if(targetRegister == 'h') {
+        registerMachine.setRegisterValue(registerMachine.registerIndex(targetRegister), registerValue);
+        if (targetRegister == 'h') {
             valuesOfRegisterH.add(registerValue);
         }
     }
 
 
-    public void jumpInstruction(long jump) {
-        commandPointer += jump - 1;
-    }
-
-
     public CoprocessorCommand nextCoprocessorCommand() {
-        CoprocessorCommand coprocessorCommand = coprocessorCommands.get(commandPointer++);
-        coprocessorCommand.executeCoprocessorCommand(this);
-        if (coprocessorCommand instanceof MultiplyRegisterCoprocessorCommand) {
-            multiplyCommandCounter++;
+        int commandPointer = registerMachine.getInstructionPointer();
+        CoprocessorCommand coprocessorCommand = coprocessorCommands.get(commandPointer);
+        registerMachine.step();
+        int registerH = registerMachine.registerIndex('h');
+        if (registerMachine.writesRegisterAt(commandPointer, registerH)) {
+            valuesOfRegisterH.add(registerMachine.getRegisterValue(registerH));
         }
         return coprocessorCommand;
     }
 
     public boolean hasNextCoprocessorCommand() {
-        return commandPointer < coprocessorCommands.size();
+        return !registerMachine.isHalted();
+    }
+
+    /**
+     * Runs all remaining commands without stepping, so the written values of register 'h' aren't recorded.
+     */
+    public void run() {
+        registerMachine.run();
     }
 
 
     public long getMultiplyCommandCounter() {
-        return multiplyCommandCounter;
+        return registerMachine.getExecutionCount(RegisterMachine.MUL);
     }
 
 
@@ -123,6 +123,7 @@ public class CoprocessorConflagration {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
+        int commandPointer = registerMachine.getInstructionPointer();
         CoprocessorCommand currentCoprocessorCommand = coprocessorCommands.get(commandPointer);
         if (currentCoprocessorCommand instanceof JumpRegisterCoprocessorCommand) {
             int from = Math.max(0, commandPointer - 5);
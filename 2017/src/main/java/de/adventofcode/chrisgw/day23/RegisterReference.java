@@ -1,5 +1,7 @@
 package de.adventofcode.chrisgw.day23;
 
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
+
 
 public class RegisterReference {
 
@@ -20,6 +22,11 @@ public class RegisterReference {
     }
 
 
+    public int compileOperand(RegisterMachine registerMachine) {
+        return registerMachine.operand(registerReference);
+    }
+
+
     public char getRegisterName() {
         return registerReference.charAt(0);
     }
@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day23.command;
 import de.adventofcode.chrisgw.day23.CoprocessorCommand;
 import de.adventofcode.chrisgw.day23.CoprocessorConflagration;
 import de.adventofcode.chrisgw.day23.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class JumpRegisterCoprocessorCommand implements CoprocessorCommand {
@@ -18,12 +19,9 @@ public class JumpRegisterCoprocessorCommand implements CoprocessorCommand {
 
 
     @Override
-    public void executeCoprocessorCommand(CoprocessorConflagration coprocessor) {
-        long registerValue = targetRegister.getValue(coprocessor);
-        if (registerValue != 0) {
-            long jump = jumpRegister.getValue(coprocessor);
-            coprocessor.jumpInstruction(jump);
-        }
+    public void compileCoprocessorCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.JNZ, targetRegister.compileOperand(registerMachine),
+                jumpRegister.compileOperand(registerMachine));
     }
 
     @Override
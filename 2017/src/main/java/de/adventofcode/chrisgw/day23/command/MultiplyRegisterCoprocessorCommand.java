@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day23.command;
 import de.adventofcode.chrisgw.day23.CoprocessorCommand;
 import de.adventofcode.chrisgw.day23.CoprocessorConflagration;
 import de.adventofcode.chrisgw.day23.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class MultiplyRegisterCoprocessorCommand implements CoprocessorCommand {
@@ -18,11 +19,9 @@ public class MultiplyRegisterCoprocessorCommand implements CoprocessorCommand {
 
 
     @Override
-    public void executeCoprocessorCommand(CoprocessorConflagration coprocessor) {
-        long oldRegisterValue = targetRegister.getValue(coprocessor);
-        long factor = factorRegister.getValue(coprocessor);
-        long newRegisterValue = oldRegisterValue * factor;
-        coprocessor.setRegisterValue(targetRegister.getRegisterName(), newRegisterValue);
+    public void compileCoprocessorCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.MUL, targetRegister.compileOperand(registerMachine),
+                factorRegister.compileOperand(registerMachine));
     }
 
     @Override
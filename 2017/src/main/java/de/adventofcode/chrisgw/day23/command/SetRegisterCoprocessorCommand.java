@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day23.command;
 import de.adventofcode.chrisgw.day23.CoprocessorCommand;
 import de.adventofcode.chrisgw.day23.CoprocessorConflagration;
 import de.adventofcode.chrisgw.day23.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class SetRegisterCoprocessorCommand implements CoprocessorCommand {
@@ -18,9 +19,9 @@ public class SetRegisterCoprocessorCommand implements CoprocessorCommand {
 
 
     @Override
-    public void executeCoprocessorCommand(CoprocessorConflagration coprocessor) {
-        long valueToSet = registerValueToSet.getValue(coprocessor);
-        coprocessor.setRegisterValue(targetRegister.getRegisterName(), valueToSet);
+    public void compileCoprocessorCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.SET, targetRegister.compileOperand(registerMachine),
+                registerValueToSet.compileOperand(registerMachine));
     }
 
     @Override
@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day23.command;
 import de.adventofcode.chrisgw.day23.CoprocessorCommand;
 import de.adventofcode.chrisgw.day23.CoprocessorConflagration;
 import de.adventofcode.chrisgw.day23.RegisterReference;
+import de.adventofcode.chrisgw.registermachine.RegisterMachine;
 
 
 public class SubtractRegisterCoprocessorCommand implements CoprocessorCommand {
@@ -17,12 +18,10 @@ public class SubtractRegisterCoprocessorCommand implements CoprocessorCommand {
     }
 
 
-
     @Override
-    public void executeCoprocessorCommand(CoprocessorConflagration coprocessor) {
-        long oldRegisterValue = targetRegister.getValue(coprocessor);
-        long newRegisterValue = oldRegisterValue - subtrahendRegister.getValue(coprocessor);
-        coprocessor.setRegisterValue(targetRegister.getRegisterName(), newRegisterValue);
+    public void compileCoprocessorCommand(RegisterMachine registerMachine) {
+        registerMachine.emit(RegisterMachine.SUB, targetRegister.compileOperand(registerMachine),
+                subtrahendRegister.compileOperand(registerMachine));
     }
 
     @Override
@@ -0,0 +1,311 @@
+package de.adventofcode.chrisgw.registermachine;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+
+/**
+ * Register machine shared by the assembly puzzles. Commands are compiled into a flat int array of
+ * {@value #INSTRUCTION_SIZE} ints per instruction: the op code followed by three register indices. Immediate values
+ * are compiled into read only constant registers, so every operand is read as {@code registers[operand]}.
+ * <p>
+ * {@link #SND} and {@link #RCV} are executed by the caller: {@link #run()} and {@link #step()} stop in front of them
+ * and return their op code, the caller then reads {@link #operandValue(int)} and continues with
+ * {@link #completeInstruction()} or {@link #receive(long)}.
+ */
+public class RegisterMachine {
+
+    public static final int SET = 0; // a = b
+    public static final int ADD = 1; // a += b
+    public static final int SUB = 2; // a -= b
+    public static final int MUL = 3; // a *= b
+    public static final int MOD = 4; // a %= b
+    public static final int MAX = 5; // a = max(a, b)
+    public static final int JGZ = 6; // jump by b if a > 0
+    public static final int JNZ = 7; // jump by b if a != 0
+    public static final int JEQ = 8; // jump by c if a == b
+    public static final int JNE = 9; // jump by c if a != b
+    public static final int JLT = 10; // jump by c if a < b
+    public static final int JLE = 11; // jump by c if a <= b
+    public static final int JGT = 12; // jump by c if a > b
+    public static final int JGE = 13; // jump by c if a >= b
+    public static final int SND = 14; // send a
+    public static final int RCV = 15; // receive into a
+    public static final int OP_CODE_COUNT = 16;
+
+    public static final int HALTED = -1;
+    public static final int PAUSED = -2;
+
+    public static final int INSTRUCTION_SIZE = 4;
+
+    private static final Pattern IMMEDIATE_VALUE_PATTERN = Pattern.compile("-?\\d+");
+
+
+    private final Map<String, Integer> registerIndices = new HashMap<>();
+    private final Map<Long, Integer> constantRegisters = new HashMap<>();
+    private final BitSet readOnlyRegisters = new BitSet();
+    private long[] registers = new long[26];
+    private int registerCount = 0;
+
+    private int[] code = new int[16 * INSTRUCTION_SIZE];
+    private int instructionCount = 0;
+    private int instructionPointer = 0;
+
+    private final long[] executionCounts = new long[OP_CODE_COUNT];
+
+
+    public static RegisterMachine withLetterRegisters() {
+        RegisterMachine registerMachine = new RegisterMachine();
+        for (char registerName = 'a'; registerName <= 'z'; registerName++) {
+            registerMachine.registerIndex(registerName);
+        }
+        return registerMachine;
+    }
+
+
+    // --- compile
+
+    public int registerIndex(char registerName) {
+        return registerIndex(String.valueOf(registerName));
+    }
+
+    public int registerIndex(String registerName) {
+        return registerIndices.computeIfAbsent(registerName, name -> allocateRegister(0));
+    }
+
+    public int allocateRegister(long initialValue) {
+        if (registerCount == registers.length) {
+            registers = Arrays.copyOf(registers, registerCount * 2);
+        }
+        registers[registerCount] = initialValue;
+        return registerCount++;
+    }
+
+    public int constant(long value) {
+        return constantRegisters.computeIfAbsent(value, constantValue -> {
+            int register = allocateRegister(constantValue);
+            readOnlyRegisters.set(register);
+            return register;
+        });
+    }
+
+    public int operand(String registerOrValue) {
+        if (IMMEDIATE_VALUE_PATTERN.matcher(registerOrValue).matches()) {
+            return constant(Long.parseLong(registerOrValue));
+        } else {
+            return registerIndex(registerOrValue);
+        }
+    }
+
+
+    public int emit(int opCode, int a) {
+        return emit(opCode, a, 0, 0);
+    }
+
+    public int emit(int opCode, int a, int b) {
+        return emit(opCode, a, b, 0);
+    }
+
+    public int emit(int opCode, int a, int b, int c) {
+        if (opCode < 0 || opCode >= OP_CODE_COUNT) {
+            throw new IllegalArgumentException("Unknown opCode: " + opCode);
+        }
+        if (writesOperandA(opCode) && readOnlyRegisters.get(a)) {
+            throw new IllegalArgumentException("Can't write into constant: " + registers[a]);
+        }
+        if (instructionCount * INSTRUCTION_SIZE == code.length) {
+            code = Arrays.copyOf(code, code.length * 2);
+        }
+        int offset = instructionCount * INSTRUCTION_SIZE;
+        code[offset] = opCode;
+        code[offset + 1] = a;
+        code[offset + 2] = b;
+        code[offset + 3] = c;
+        return instructionCount++;
+    }
+
+    private static boolean writesOperandA(int opCode) {
+        return opCode <= MAX || opCode == RCV;
+    }
+
+    public void setOperandAt(int instruction, int operand, int register) {
+        code[instruction * INSTRUCTION_SIZE + 1 + operand] = register;
+    }
+
+    public void clearInstructions() {
+        instructionCount = 0;
+        instructionPointer = 0;
+    }
+
+
+    // --- execute
+
+    public int run() {
+        return execute(Long.MAX_VALUE);
+    }
+
+    public int step() {
+        return execute(1);
+    }
+
+    private int execute(long instructionBudget) {
+        final int[] code = this.code;
+        final long[] registers = this.registers;
+        final long[] executionCounts = this.executionCounts;
+        final int codeLength = instructionCount * INSTRUCTION_SIZE;
+        int ip = instructionPointer * INSTRUCTION_SIZE;
+
+        for (long executed = 0; executed < instructionBudget; executed++) {
+            if (ip < 0 || ip >= codeLength) {
+                instructionPointer = instructionCount;
+                return HALTED;
+            }
+            int opCode = code[ip];
+            int a = code[ip + 1];
+            int b = code[ip + 2];
+            int next = ip + INSTRUCTION_SIZE;
+
+            switch (opCode) {
+            case SET:
+                registers[a] = registers[b];
+                break;
+            case ADD:
+                registers[a] += registers[b];
+                break;
+            case SUB:
+                registers[a] -= registers[b];
+                break;
+            case MUL:
+                registers[a] *= registers[b];
+                break;
+            case MOD:
+                registers[a] %= registers[b];
+                break;
+            case MAX:
+                registers[a] = Math.max(registers[a], registers[b]);
+                break;
+            case JGZ:
+                if (registers[a] > 0) {
+                    next = jumpTarget(ip, registers[b], codeLength);
+                }
+                break;
+            case JNZ:
+                if (registers[a] != 0) {
+                    next = jumpTarget(ip, registers[b], codeLength);
+                }
+                break;
+            case JEQ:
+                if (registers[a] == registers[b]) {
+                    next = jumpTarget(ip, registers[code[ip + 3]], codeLength);
+                }
+                break;
+            case JNE:
+                if (registers[a] != registers[b]) {
+                    next = jumpTarget(ip, registers[code[ip + 3]], codeLength);
+                }
+                break;
+            case JLT:
+                if (registers[a] < registers[b]) {
+                    next = jumpTarget(ip, registers[code[ip + 3]], codeLength);
+                }
+                break;
+            case JLE:
+                if (registers[a] <= registers[b]) {
+                    next = jumpTarget(ip, registers[code[ip + 3]], codeLength);
+                }
+                break;
+            case JGT:
+                if (registers[a] > registers[b]) {
+                    next = jumpTarget(ip, registers[code[ip + 3]], codeLength);
+                }
+                break;
+            case JGE:
+                if (registers[a] >= registers[b]) {
+                    next = jumpTarget(ip, registers[code[ip + 3]], codeLength);
+                }
+                break;
+            case SND:
+            case RCV:
+                instructionPointer = ip / INSTRUCTION_SIZE;
+                return opCode;
+            default:
+                throw new IllegalStateException("Unknown opCode " + opCode + " at " + ip / INSTRUCTION_SIZE);
+            }
+            executionCounts[opCode]++;
+            ip = next;
+        }
+        instructionPointer = ip < 0 || ip >= codeLength ? instructionCount : ip / INSTRUCTION_SIZE;
+        return instructionPointer == instructionCount ? HALTED : PAUSED;
+    }
+
+    private static int jumpTarget(int ip, long offset, int codeLength) {
+        long target = ip + offset * INSTRUCTION_SIZE;
+        if (target < 0 || target >= codeLength) {
+            return codeLength;
+        }
+        return (int) target;
+    }
+
+
+    public long operandValue(int operand) {
+        return registers[code[instructionPointer * INSTRUCTION_SIZE + 1 + operand]];
+    }
+
+    public void completeInstruction() {
+        executionCounts[code[instructionPointer * INSTRUCTION_SIZE]]++;
+        instructionPointer++;
+    }
+
+    public void receive(long value) {
+        registers[code[instructionPointer * INSTRUCTION_SIZE + 1]] = value;
+        completeInstruction();
+    }
+
+
+    // --- state
+
+    public long getRegisterValue(int register) {
+        return registers[register];
+    }
+
+    public void setRegisterValue(int register, long value) {
+        if (readOnlyRegisters.get(register)) {
+            throw new IllegalArgumentException("Can't write into constant: " + registers[register]);
+        }
+        registers[register] = value;
+    }
+
+
+    public int opCodeAt(int instruction) {
+        return code[instruction * INSTRUCTION_SIZE];
+    }
+
+    public int operandAt(int instruction, int operand) {
+        return code[instruction * INSTRUCTION_SIZE + 1 + operand];
+    }
+
+    public boolean writesRegisterAt(int instruction, int register) {
+        return writesOperandA(opCodeAt(instruction)) && operandAt(instruction, 0) == register;
+    }
+
+
+    public int getInstructionPointer() {
+        return instructionPointer;
+    }
+
+    public int getInstructionCount() {
+        return instructionCount;
+    }
+
+    public boolean isHalted() {
+        return instructionPointer < 0 || instructionPointer >= instructionCount;
+    }
+
+    public long getExecutionCount(int opCode) {
+        return executionCounts[opCode];
+    }
+
+}
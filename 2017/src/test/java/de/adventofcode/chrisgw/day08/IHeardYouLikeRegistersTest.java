@@ -62,6 +62,22 @@ public class IHeardYouLikeRegistersTest {
     }
 
 
+    @Test
+    public void findLargestCpuRegisterValue_myTask_compiled() {
+        String classpathResource = "/day08/IHeardYouLikeRegisters_chrisgw.txt";
+        List<String> cpuRegisterInstructionLines = TestUtils.readAllLinesOfClassPathResource(classpathResource);
+        int expectedLargestCpuRegisterValue = 3089;
+
+        IHeardYouLikeRegisters iHeardYouLikeRegisters = new IHeardYouLikeRegisters();
+        List<CpuRegisterInstruction> cpuRegisterInstructions = iHeardYouLikeRegisters.parseCpuRegisterInstructions(
+                cpuRegisterInstructionLines);
+        iHeardYouLikeRegisters.executeCpuRegisterInstructions(cpuRegisterInstructions);
+
+        int largestCpuRegisterValue = iHeardYouLikeRegisters.findLargestCpuRegisterValue();
+        Assert.assertEquals("Expect largestCpuRegisterValue", expectedLargestCpuRegisterValue, largestCpuRegisterValue);
+    }
+
+
     // --- part 2
 
     @Test
@@ -102,5 +118,21 @@ public class IHeardYouLikeRegistersTest {
                 largestCpuRegisterValueHeld);
     }
 
+    @Test
+    public void findLargestCpuRegisterValueHeld_myTask_compiled() {
+        String classpathResource = "/day08/IHeardYouLikeRegisters_chrisgw.txt";
+        List<String> cpuRegisterInstructionLines = TestUtils.readAllLinesOfClassPathResource(classpathResource);
+        int expectedLargestCpuRegisterValueHeld = 5391;
+
+        IHeardYouLikeRegisters iHeardYouLikeRegisters = new IHeardYouLikeRegisters();
+        List<CpuRegisterInstruction> cpuRegisterInstructions = iHeardYouLikeRegisters.parseCpuRegisterInstructions(
+                cpuRegisterInstructionLines);
+        iHeardYouLikeRegisters.executeCpuRegisterInstructions(cpuRegisterInstructions);
+
+        int largestCpuRegisterValueHeld = iHeardYouLikeRegisters.findLargestCpuRegisterValueHeld();
+        Assert.assertEquals("Expect largestCpuRegisterValueHeld", expectedLargestCpuRegisterValueHeld,
+                largestCpuRegisterValueHeld);
+    }
+
 
-}
\ No newline at end of file
+}
@@ -1,7 +1,6 @@
 package de.adventofcode.chrisgw.day18;
 
 import org.junit.Assert;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -82,6 +81,30 @@ public class DuetTest {
     }
 
 
+    @Test
+    public void duetInstructions_part1_myTask_run() {
+        String[] splittedCommands = ("set i 31\n" + "set a 1\n" + "mul p 17\n" + "jgz p p\n" + "mul a 2\n"
+                + "add i -1\n" + "jgz i -2\n" + "add a -1\n" + "set i 127\n" + "set p 735\n" + "mul p 8505\n"
+                + "mod p a\n" + "mul p 129749\n" + "add p 12345\n" + "mod p a\n" + "set b p\n" + "mod b 10000\n"
+                + "snd b\n" + "add i -1\n" + "jgz i -9\n" + "jgz a 3\n" + "rcv b\n" + "jgz b -1\n" + "set f 0\n"
+                + "set i 126\n" + "rcv a\n" + "rcv b\n" + "set p a\n" + "mul p -1\n" + "add p b\n" + "jgz p 4\n"
+                + "snd a\n" + "set a b\n" + "jgz 1 3\n" + "snd b\n" + "set f 1\n" + "add i -1\n" + "jgz i -11\n"
+                + "snd a\n" + "jgz f -16\n" + "jgz a -19").split("\n");
+        List<DuetCommand> duetCommands = Arrays.stream(splittedCommands)
+                .map(Duet::parseDuetCommand)
+                .collect(Collectors.toList());
+        long expectedRecoverFrequency = 8600;
+
+        Duet duet = new Duet(duetCommands);
+        duet.run();
+        Assert.assertFalse("no more commands", duet.hasNextDuetCommand());
+        Assert.assertTrue("no more commands", duet.getFirstRecoverdFrequenz().isPresent());
+
+        long recoverdFrequency = duet.getFirstRecoverdFrequenz().getAsLong();
+        Assert.assertEquals("last recovered frequency", expectedRecoverFrequency, recoverdFrequency);
+    }
+
+
     // --- part 2
 
     @Test
@@ -119,7 +142,129 @@ public class DuetTest {
         Assert.assertEquals("expect send count", expectedSencCount, sendCount);
     }
 
-    @Ignore
+    @Test
+    public void duetInstructions_part2_example_concurrently() {
+        // @formatter:off
+        List<DuetCommand> duetCommands = Stream.of(
+                "snd 1",
+                "snd 2",
+                "snd p",
+                "rcv a",
+                "rcv b",
+                "rcv c",
+                "rcv d")
+                .map(Duet::parseDuetCommand)
+                .collect(Collectors.toList());
+        // @formatter:on
+        long expectedSencCount = 3;
+
+        Duet duet = new Duet(duetCommands);
+        Duet otherDuet = duet.withNewPartnerDuet();
+        duet.runConcurrentlyWithPartnerDuet();
+
+        Assert.assertEquals("received program id", 1, duet.getRegisterValue('c'));
+        Assert.assertEquals("received program id", 0, otherDuet.getRegisterValue('c'));
+        int sendCount = otherDuet.getSendCount();
+        Assert.assertEquals("expect send count", expectedSencCount, sendCount);
+    }
+
+
+    @Test(timeout = 10000)
+    public void duetInstructions_part2_manySends_stepped() {
+        List<DuetCommand> duetCommands = manySendsDuetCommands(2 * Duet.RECEIVE_QUEUE_CAPACITY);
+
+        Duet duet = new Duet(duetCommands);
+        Duet otherDuet = duet.withNewPartnerDuet();
+        boolean isDeadlock = false;
+        while (true) {
+            duet.nextDuetCommand();
+            otherDuet.nextDuetCommand();
+            if (isDeadlock && duet.isLocked() && otherDuet.isLocked()) {
+                break;
+            }
+            isDeadlock = duet.isLocked() && otherDuet.isLocked();
+        }
+
+        long expectedReceivedSum = (long) Duet.RECEIVE_QUEUE_CAPACITY * (2 * Duet.RECEIVE_QUEUE_CAPACITY + 1);
+        Assert.assertEquals("received sum", expectedReceivedSum, duet.getRegisterValue('b'));
+        Assert.assertEquals("received sum", expectedReceivedSum, otherDuet.getRegisterValue('b'));
+        Assert.assertEquals("expect send count", 2 * Duet.RECEIVE_QUEUE_CAPACITY, otherDuet.getSendCount());
+    }
+
+    @Test(timeout = 10000)
+    public void duetInstructions_part2_manySends_run() {
+        List<DuetCommand> duetCommands = manySendsDuetCommands(2 * Duet.RECEIVE_QUEUE_CAPACITY);
+
+        Duet duet = new Duet(duetCommands);
+        Duet otherDuet = duet.withNewPartnerDuet();
+        duet.run();
+        otherDuet.run();
+        duet.run();
+
+        long expectedReceivedSum = (long) Duet.RECEIVE_QUEUE_CAPACITY * (2 * Duet.RECEIVE_QUEUE_CAPACITY + 1);
+        Assert.assertTrue("deadlocked", duet.isLocked() && otherDuet.isLocked());
+        Assert.assertEquals("received sum", expectedReceivedSum, duet.getRegisterValue('b'));
+        Assert.assertEquals("received sum", expectedReceivedSum, otherDuet.getRegisterValue('b'));
+    }
+
+    private static List<DuetCommand> manySendsDuetCommands(int sendCount) {
+        // @formatter:off
+        return Stream.of(
+                "set i " + sendCount,
+                "snd i",
+                "add i -1",
+                "jgz i -2",
+                "set i " + sendCount,
+                "rcv a",
+                "add b a",
+                "add i -1",
+                "jgz i -3",
+                "rcv a")
+                .map(Duet::parseDuetCommand)
+                .collect(Collectors.toList());
+        // @formatter:on
+    }
+
+
+    @Test(timeout = 10000)
+    public void duetInstructions_part2_failingDuet_stopsWaitingPartner() {
+        // @formatter:off
+        List<DuetCommand> duetCommands = Stream.of(
+                "add p -1",
+                "mod a p", // program 1 divides by zero
+                "rcv a")
+                .map(Duet::parseDuetCommand)
+                .collect(Collectors.toList());
+        // @formatter:on
+        assertFailsConcurrently(duetCommands);
+    }
+
+    @Test(timeout = 10000)
+    public void duetInstructions_part2_failingDuet_stopsSendingPartner() {
+        // @formatter:off
+        List<DuetCommand> duetCommands = Stream.of(
+                "add p -1",
+                "mod a p", // program 1 divides by zero
+                "snd a",
+                "jgz 1 -1") // program 0 sends until the receive queue of program 1 is full
+                .map(Duet::parseDuetCommand)
+                .collect(Collectors.toList());
+        // @formatter:on
+        assertFailsConcurrently(duetCommands);
+    }
+
+    private static void assertFailsConcurrently(List<DuetCommand> duetCommands) {
+        Duet duet = new Duet(duetCommands);
+        duet.withNewPartnerDuet();
+        try {
+            duet.runConcurrentlyWithPartnerDuet();
+            Assert.fail("expect failing duet");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue("division by zero", e.getCause() instanceof ArithmeticException);
+        }
+    }
+
+
     @Test
     public void duetInstructions_part2_myTask() {
         String[] splittedCommands = ("set i 31\n" + "set a 1\n" + "mul p 17\n" + "jgz p p\n" + "mul a 2\n"
@@ -132,22 +277,12 @@ public class DuetTest {
         List<DuetCommand> duetCommands = Arrays.stream(splittedCommands)
                 .map(Duet::parseDuetCommand)
                 .collect(Collectors.toList());
-        long expectedSencCount = 3;
+        long expectedSencCount = 7239;
 
         Duet duet = new Duet(duetCommands);
         Duet otherDuet = duet.withNewPartnerDuet();
-
-        boolean isDeadlock = false;
-        for (long i = 0; true; i++) {
-            DuetCommand duetCommand = duet.nextDuetCommand();
-            DuetCommand otherDuetCommand = otherDuet.nextDuetCommand();
-
-            if (isDeadlock && duet.isLocked() && otherDuet.isLocked()) {
-                break;
-            } else if (duet.isLocked() && otherDuet.isLocked()) {
-                isDeadlock = true;
-            }
-        }
+        duet.runConcurrentlyWithPartnerDuet();
+        Assert.assertTrue("deadlocked", duet.isLocked() && otherDuet.isLocked());
 
         int sendCount = otherDuet.getSendCount();
         Assert.assertEquals("expect send count", expectedSencCount, sendCount);
@@ -65,6 +65,23 @@ public class CoprocessorConflagrationTest {
     }
 
 
+    @Test
+    public void coprocessorConflagration_part1_myTask_run() {
+        List<CoprocessorCommand> coprocessorCommands = Stream.of(myTaskCommands)
+                .map(CoprocessorConflagration::parseCoprocessorCommand)
+                .collect(Collectors.toList());
+        long expectedExecutedMultiplyCommands = 3969;
+
+        CoprocessorConflagration coprocessorConflagration = new CoprocessorConflagration(coprocessorCommands);
+        coprocessorConflagration.run();
+
+        Assert.assertFalse("no more commands", coprocessorConflagration.hasNextCoprocessorCommand());
+        long multiplyCommandCounter = coprocessorConflagration.getMultiplyCommandCounter();
+        Assert.assertEquals("Expected executed multiply commands", expectedExecutedMultiplyCommands,
+                multiplyCommandCounter);
+    }
+
+
     @Ignore
     @Test
     public void coprocessorConflagration_part2_myTask() {
@@ -0,0 +1,123 @@
+package de.adventofcode.chrisgw;
+
+
+/**
+ * Open addressing hash map from grid coordinates, packed as {@code x << 32 | y}, to a byte value. It also keeps the
+ * bounding box of all put coordinates, for rendering them row by row.
+ */
+public class PackedCoordinateMap {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private byte[] values = new byte[INITIAL_CAPACITY];
+    private byte[] states = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private int minX = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+
+
+    public static long packedCoordinate(int x, int y) {
+        return (long) x << 32 | (y & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long packedCoordinate) {
+        return (int) (packedCoordinate >> 32);
+    }
+
+    public static int unpackY(long packedCoordinate) {
+        return (int) packedCoordinate;
+    }
+
+
+    public byte get(int x, int y, byte defaultValue) {
+        return get(packedCoordinate(x, y), defaultValue);
+    }
+
+    public byte get(long packedCoordinate, byte defaultValue) {
+        int slot = slotFor(packedCoordinate);
+        return states[slot] == USED ? values[slot] : defaultValue;
+    }
+
+    public void put(int x, int y, byte value) {
+        put(packedCoordinate(x, y), value);
+    }
+
+    public void put(long packedCoordinate, byte value) {
+        if (2 * (size + 1) > keys.length) {
+            resize();
+        }
+        int slot = slotFor(packedCoordinate);
+        if (states[slot] == FREE) {
+            states[slot] = USED;
+            keys[slot] = packedCoordinate;
+            size++;
+            int x = unpackX(packedCoordinate);
+            int y = unpackY(packedCoordinate);
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+        }
+        values[slot] = value;
+    }
+
+
+    private int slotFor(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (states[slot] == USED && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        byte[] oldValues = values;
+        byte[] oldStates = states;
+        keys = new long[2 * oldKeys.length];
+        values = new byte[2 * oldValues.length];
+        states = new byte[2 * oldStates.length];
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            if (oldStates[oldSlot] == USED) {
+                int slot = slotFor(oldKeys[oldSlot]);
+                states[slot] = USED;
+                keys[slot] = oldKeys[oldSlot];
+                values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+}
@@ -1,6 +1,9 @@
 package de.adventofcode.chrisgw.day02;
 
+import de.adventofcode.chrisgw.intcode.IntCodeBatchExecutor;
+import de.adventofcode.chrisgw.intcode.IntCodePolynomial;
 import de.adventofcode.chrisgw.intcode.IntCodeProgram;
+import de.adventofcode.chrisgw.intcode.IntCodeSymbolicEvaluator;
 
 
 /**
@@ -8,6 +11,9 @@ import de.adventofcode.chrisgw.intcode.IntCodeProgram;
  */
 public class AdventOfCodeDay02 {
 
+    private static final int NOUN_ADDRESS = 1;
+    private static final int VERB_ADDRESS = 2;
+
     private IntCodeProgram intCodeProgram;
 
     public AdventOfCodeDay02(String intCodeProgramStr) {
@@ -21,17 +27,58 @@ public class AdventOfCodeDay02 {
 
 
     public int completeGravityAssistProgram(int whisedOutput) {
+        IntCodeSymbolicEvaluator symbolicEvaluator = new IntCodeSymbolicEvaluator(intCodeProgram.getInitialState());
+        symbolicEvaluator.withVariable(NOUN_ADDRESS).withVariable(VERB_ADDRESS).run();
+        if (symbolicEvaluator.isFinished() && symbolicEvaluator.isKnownAt(0)) {
+            return solveNounVerb(symbolicEvaluator.valueAt(0), whisedOutput);
+        }
+        return searchNounVerb(whisedOutput);
+    }
+
+    /**
+     * Solves {@code output(noun, verb) = whisedOutput} for each noun. If the output is linear in the verb, the verb
+     * follows directly from {@code output(noun, 0)} and {@code output(noun, 1)}.
+     */
+    private int solveNounVerb(IntCodePolynomial output, int whisedOutput) {
+        boolean isLinearInVerb = output.degreeIn(VERB_ADDRESS) <= 1;
         for (int noun = 0; noun < 100; noun++) {
-            for (int verb = 0; verb < 100; verb++) {
-                long output = runIntCodeProgram(noun, verb);
-                if (output == whisedOutput) {
-                    return 100 * noun + verb;
+            if (isLinearInVerb) {
+                long outputForVerb0 = evaluate(output, noun, 0);
+                long verbCoefficient = evaluate(output, noun, 1) - outputForVerb0;
+                long remainder = whisedOutput - outputForVerb0;
+                if (verbCoefficient == 0) {
+                    if (remainder == 0) {
+                        return 100 * noun;
+                    }
+                } else if (remainder % verbCoefficient == 0) {
+                    long verb = remainder / verbCoefficient;
+                    if (0 <= verb && verb < 100) {
+                        return 100 * noun + (int) verb;
+                    }
+                }
+            } else {
+                for (int verb = 0; verb < 100; verb++) {
+                    if (evaluate(output, noun, verb) == whisedOutput) {
+                        return 100 * noun + verb;
+                    }
                 }
             }
         }
         return 0;
     }
 
+    private static long evaluate(IntCodePolynomial output, int noun, int verb) {
+        return output.evaluate(address -> address == NOUN_ADDRESS ? noun : verb);
+    }
+
+    private int searchNounVerb(int whisedOutput) {
+        IntCodeBatchExecutor batchExecutor = new IntCodeBatchExecutor(intCodeProgram);
+        return batchExecutor.findFirst(100 * 100, (program, nounVerb) -> {
+            program.setNoun(nounVerb / 100);
+            program.setVerb(nounVerb % 100);
+        }, program -> program.valueAt(0) == whisedOutput).orElse(0);
+    }
+
 
     private long runIntCodeProgram(int noun, int verb) {
         intCodeProgram.reset();
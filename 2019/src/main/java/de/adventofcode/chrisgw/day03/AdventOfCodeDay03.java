@@ -5,8 +5,6 @@ import lombok.Data;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static java.util.Comparator.comparingInt;
-
 
 /**
  * https://adventofcode.com/2019/day/3
@@ -59,20 +57,17 @@ public class AdventOfCodeDay03 {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        GridPoint topLeft = wires.stream()
-                .map(Wire::intersectionPoints)
-                .flatMap(Collection::stream)
-                .max(comparingInt(GridPoint::getX).reversed().thenComparingInt(GridPoint::getY))
-                .orElse(centralPort);
-
-        GridPoint bottomRight = wires.stream()
-                .map(Wire::intersectionPoints)
+        List<WireSegment> segments = wires.stream()
+                .map(Wire::getSegments)
                 .flatMap(Collection::stream)
-                .max(comparingInt(GridPoint::getX).thenComparing(comparingInt(GridPoint::getY).reversed()))
-                .orElse(centralPort);
+                .collect(Collectors.toList());
+        int minX = segments.stream().mapToInt(WireSegment::getMinX).min().orElse(0);
+        int maxX = segments.stream().mapToInt(WireSegment::getMaxX).max().orElse(0);
+        int minY = segments.stream().mapToInt(WireSegment::getMinY).min().orElse(0);
+        int maxY = segments.stream().mapToInt(WireSegment::getMaxY).max().orElse(0);
 
-        for (int y = topLeft.getY() + 1; y >= bottomRight.getY() - 1; y--) {
-            for (int x = topLeft.getX() - 1; x <= bottomRight.getX() + 1; x++) {
+        for (int y = maxY + 1; y >= minY - 1; y--) {
+            for (int x = minX - 1; x <= maxX + 1; x++) {
                 GridPoint gridPoint = new GridPoint(x, y);
                 if (centralPort.isAt(gridPoint)) {
                     sb.append('o');
@@ -90,7 +85,7 @@ public class AdventOfCodeDay03 {
     }
 
     private boolean isWirePoint(GridPoint gridPoint) {
-        return wires.stream().map(Wire::intersectionPoints).flatMap(Collection::stream).anyMatch(gridPoint::isAt);
+        return wires.stream().anyMatch(wire -> wire.isWirePoint(gridPoint));
     }
 
 
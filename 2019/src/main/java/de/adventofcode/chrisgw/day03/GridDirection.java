@@ -2,8 +2,6 @@ package de.adventofcode.chrisgw.day03;
 
 import lombok.Data;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -31,16 +29,4 @@ public class GridDirection {
         }
     }
 
-
-    public List<GridPoint> pathFrom(GridPoint startingPoint) {
-        List<GridPoint> path = new ArrayList<>(length);
-        GridPoint currentPoint = startingPoint;
-        for (int i = 0; i < length; i++) {
-            currentPoint = currentPoint.moveTo(direction);
-            path.add(currentPoint);
-        }
-        return path;
-    }
-
-
 }
@@ -4,55 +4,130 @@ import lombok.Data;
 
 import java.util.*;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
+import static java.util.Comparator.comparingInt;
 
-@Data
-public class Wire implements Iterable<GridPoint> {
 
-    private Map<GridPoint, Integer> wirePath = new LinkedHashMap<>();
+/**
+ * Wire as list of its {@link WireSegment}s, so its memory grows with the turns and not with the length of its path.
+ */
+@Data
+public class Wire {
 
-    public static Wire parseWirePath(GridPoint startingPoint, String wirePathStr) {
-        Wire wire = new Wire();
+    private final List<WireSegment> segments;
 
-        List<GridDirection> wirePathDirections = Pattern.compile(",")
-                .splitAsStream(wirePathStr)
-                .map(GridDirection::parse)
-                .collect(Collectors.toList());
 
-        int distance = 0;
-        wire.wirePath.put(startingPoint, distance++);
+    public static Wire parseWirePath(GridPoint startingPoint, String wirePathStr) {
+        List<WireSegment> segments = new ArrayList<>();
         GridPoint currentPoint = startingPoint;
-        for (GridDirection wirePathDirection : wirePathDirections) {
-            List<GridPoint> wirePath = wirePathDirection.pathFrom(currentPoint);
-            for (GridPoint point : wirePath) {
-                wire.wirePath.putIfAbsent(point, distance++);
-            }
-            currentPoint = wirePath.get(wirePath.size() - 1);
+        int signalDistance = 0;
+        for (String gridDirectionStr : Pattern.compile(",").split(wirePathStr)) {
+            WireSegment segment = WireSegment.from(currentPoint, GridDirection.parse(gridDirectionStr),
+                    signalDistance);
+            segments.add(segment);
+            signalDistance += segment.length();
+            currentPoint = segment.getEnd();
         }
-        return wire;
+        return new Wire(segments);
     }
 
+
+    /**
+     * Sweeps a vertical line from left to right over the horizontal segments of one wire and the vertical segments of
+     * the other wire. The active horizontal segments are ordered by their y, so each vertical segment finds its
+     * crossings by a range query. Overlapping parallel segments are compared pairwise per line.
+     */
     public Set<GridPoint> intersectionPointsWith(Wire otherWire) {
-        Set<GridPoint> intersectionPoints = new HashSet<>(intersectionPoints());
-        intersectionPoints.retainAll(otherWire.intersectionPoints());
+        Set<GridPoint> intersectionPoints = new HashSet<>();
+        sweepCrossings(this.segments(true), otherWire.segments(false), intersectionPoints);
+        sweepCrossings(otherWire.segments(true), this.segments(false), intersectionPoints);
+        addParallelOverlaps(this.segments(true), otherWire.segments(true), intersectionPoints);
+        addParallelOverlaps(this.segments(false), otherWire.segments(false), intersectionPoints);
         return intersectionPoints;
     }
 
+    private List<WireSegment> segments(boolean horizontal) {
+        List<WireSegment> orientedSegments = new ArrayList<>();
+        for (WireSegment segment : segments) {
+            if (segment.isHorizontal() == horizontal) {
+                orientedSegments.add(segment);
+            }
+        }
+        return orientedSegments;
+    }
 
-    public int signalDistanceTo(GridPoint intersectionPoint) {
-        return wirePath.getOrDefault(intersectionPoint, Integer.MAX_VALUE);
+    private static void sweepCrossings(List<WireSegment> horizontalSegments, List<WireSegment> verticalSegments,
+            Set<GridPoint> intersectionPoints) {
+        List<WireSegment> segmentsByStart = new ArrayList<>(horizontalSegments);
+        segmentsByStart.sort(comparingInt(WireSegment::getMinX));
+        List<WireSegment> segmentsByEnd = new ArrayList<>(horizontalSegments);
+        segmentsByEnd.sort(comparingInt(WireSegment::getMaxX));
+        List<WireSegment> sweepSegments = new ArrayList<>(verticalSegments);
+        sweepSegments.sort(comparingInt(WireSegment::getMinX));
+
+        NavigableMap<Integer, Integer> activeSegmentCountByY = new TreeMap<>();
+        int startIndex = 0;
+        int endIndex = 0;
+        for (WireSegment verticalSegment : sweepSegments) {
+            int x = verticalSegment.getMinX();
+            while (startIndex < segmentsByStart.size() && segmentsByStart.get(startIndex).getMinX() <= x) {
+                WireSegment startedSegment = segmentsByStart.get(startIndex++);
+                activeSegmentCountByY.merge(startedSegment.getMinY(), 1, Integer::sum);
+            }
+            while (endIndex < segmentsByEnd.size() && segmentsByEnd.get(endIndex).getMaxX() < x) {
+                WireSegment endedSegment = segmentsByEnd.get(endIndex++);
+                activeSegmentCountByY.merge(endedSegment.getMinY(), -1,
+                        (count, decrement) -> count + decrement == 0 ? null : count + decrement);
+            }
+            for (int y : activeSegmentCountByY.subMap(verticalSegment.getMinY(), true, verticalSegment.getMaxY(),
+                    true).keySet()) {
+                intersectionPoints.add(new GridPoint(x, y));
+            }
+        }
+    }
+
+    private static void addParallelOverlaps(List<WireSegment> segments, List<WireSegment> otherSegments,
+            Set<GridPoint> intersectionPoints) {
+        Map<Integer, List<WireSegment>> otherSegmentsByLine = new HashMap<>();
+        for (WireSegment otherSegment : otherSegments) {
+            otherSegmentsByLine.computeIfAbsent(lineOf(otherSegment), line -> new ArrayList<>()).add(otherSegment);
+        }
+        for (WireSegment segment : segments) {
+            for (WireSegment otherSegment : otherSegmentsByLine.getOrDefault(lineOf(segment), List.of())) {
+                int minX = Math.max(segment.getMinX(), otherSegment.getMinX());
+                int maxX = Math.min(segment.getMaxX(), otherSegment.getMaxX());
+                int minY = Math.max(segment.getMinY(), otherSegment.getMinY());
+                int maxY = Math.min(segment.getMaxY(), otherSegment.getMaxY());
+                for (int x = minX; x <= maxX; x++) {
+                    for (int y = minY; y <= maxY; y++) {
+                        intersectionPoints.add(new GridPoint(x, y));
+                    }
+                }
+            }
+        }
     }
 
 
-    public Set<GridPoint> intersectionPoints() {
-        return wirePath.keySet();
+    private static int lineOf(WireSegment segment) {
+        return segment.isHorizontal() ? segment.getMinY() : segment.getMinX();
+    }
+
+
+    /**
+     * @return steps along this wire until it first reaches the point or {@link Integer#MAX_VALUE}
+     */
+    public int signalDistanceTo(GridPoint point) {
+        for (WireSegment segment : segments) {
+            if (segment.contains(point.getX(), point.getY())) {
+                return segment.signalDistanceTo(point.getX(), point.getY());
+            }
+        }
+        return Integer.MAX_VALUE;
     }
 
 
-    @Override
-    public Iterator<GridPoint> iterator() {
-        return intersectionPoints().iterator();
+    public boolean isWirePoint(GridPoint point) {
+        return segments.stream().anyMatch(segment -> segment.contains(point.getX(), point.getY()));
     }
 
 }
@@ -0,0 +1,61 @@
+package de.adventofcode.chrisgw.day03;
+
+import lombok.Data;
+
+
+/**
+ * Straight horizontal or vertical part of a {@link Wire}, which starts after {@code signalDistance} steps of its
+ * wire.
+ */
+@Data
+public class WireSegment {
+
+    private final GridPoint start;
+    private final GridPoint end;
+    private final int signalDistance;
+
+
+    public static WireSegment from(GridPoint start, GridDirection gridDirection, int signalDistance) {
+        Direction direction = gridDirection.getDirection();
+        int length = gridDirection.getLength();
+        GridPoint end = new GridPoint(start.getX() + direction.getDx() * length,
+                start.getY() + direction.getDy() * length);
+        return new WireSegment(start, end, signalDistance);
+    }
+
+
+    public boolean isHorizontal() {
+        return start.getY() == end.getY();
+    }
+
+    public int length() {
+        return start.distanceTo(end);
+    }
+
+
+    public int getMinX() {
+        return Math.min(start.getX(), end.getX());
+    }
+
+    public int getMaxX() {
+        return Math.max(start.getX(), end.getX());
+    }
+
+    public int getMinY() {
+        return Math.min(start.getY(), end.getY());
+    }
+
+    public int getMaxY() {
+        return Math.max(start.getY(), end.getY());
+    }
+
+
+    public boolean contains(int x, int y) {
+        return getMinX() <= x && x <= getMaxX() && getMinY() <= y && y <= getMaxY();
+    }
+
+    public int signalDistanceTo(int x, int y) {
+        return signalDistance + Math.abs(x - start.getX()) + Math.abs(y - start.getY());
+    }
+
+}
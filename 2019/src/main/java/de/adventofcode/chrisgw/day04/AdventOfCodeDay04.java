@@ -1,24 +1,28 @@
 package de.adventofcode.chrisgw.day04;
 
-import java.util.stream.IntStream;
-
-
 /**
  * https://adventofcode.com/2019/day/4
  */
 public class AdventOfCodeDay04 {
 
 
-    public static long countPossiblePasswordsPart01(int rangeFrom, int rangeTo) {
-        return IntStream.rangeClosed(rangeFrom, rangeTo).filter(AdventOfCodeDay04::isValidPassword).count();
+    private static final int MAX_PASSWORD_DIGITS = 19;
+
+
+    public static long countPossiblePasswordsPart01(long rangeFrom, long rangeTo) {
+        return countPossiblePasswords(PasswordRule.TWO_ADJACENT_DIGITS, rangeFrom, rangeTo);
+    }
+
+    public static long countPossiblePasswordsPart02(long rangeFrom, long rangeTo) {
+        return countPossiblePasswords(PasswordRule.EXACTLY_TWO_ADJACENT_DIGITS, rangeFrom, rangeTo);
     }
 
-    public static long countPossiblePasswordsPart02(int rangeFrom, int rangeTo) {
-        return IntStream.rangeClosed(rangeFrom, rangeTo).filter(AdventOfCodeDay04::isValidPasswordPart02).count();
+    public static long countPossiblePasswords(PasswordRule passwordRule, long rangeFrom, long rangeTo) {
+        return new PasswordCounter(passwordRule, MAX_PASSWORD_DIGITS).countPasswords(rangeFrom, rangeTo);
     }
 
 
-    private static boolean isValidPassword(int password) {
+    public static boolean isValidPassword(long password) {
         String passwordStr = String.valueOf(password);
         boolean hasTwoSameAdjacentDigits = false;
         int lastDigit = -1;
@@ -35,7 +39,7 @@ public class AdventOfCodeDay04 {
     }
 
 
-    public static boolean isValidPasswordPart02(int password) {
+    public static boolean isValidPasswordPart02(long password) {
         String passwordStr = String.valueOf(password);
         boolean hasTwoSameAdjacentDigits = false;
         int sameDigitCount = 0;
@@ -0,0 +1,113 @@
+package de.adventofcode.chrisgw.day04;
+
+/**
+ * Counts passwords with never decreasing digits, which satisfy a {@link PasswordRule}, by dynamic programming over
+ * the digits instead of testing each number of the range.
+ * <p>
+ * A state is the last digit, the length of its run of same digits, capped at {@link PasswordRule#maxRunLength()},
+ * and whether a valid run was already completed. For each state the number of valid completions with the remaining
+ * digits is computed once, and a count up to a bound sums the completions of all smaller digits along the bound.
+ */
+public class PasswordCounter {
+
+    private static final int DIGITS = 10;
+
+    private final PasswordRule passwordRule;
+    private final int maxDigitCount;
+    private final long[][][][] completions; // [remaining digits][last digit][run length][valid run completed]
+
+
+    public PasswordCounter(PasswordRule passwordRule, int maxDigitCount) {
+        this.passwordRule = passwordRule;
+        this.maxDigitCount = maxDigitCount;
+        int maxRunLength = passwordRule.maxRunLength();
+        this.completions = new long[maxDigitCount][DIGITS][maxRunLength + 1][2];
+        for (int lastDigit = 0; lastDigit < DIGITS; lastDigit++) {
+            for (int runLength = 1; runLength <= maxRunLength; runLength++) {
+                completions[0][lastDigit][runLength][0] = passwordRule.isValidRun(runLength) ? 1 : 0;
+                completions[0][lastDigit][runLength][1] = 1;
+            }
+        }
+        for (int remaining = 1; remaining < maxDigitCount; remaining++) {
+            for (int lastDigit = 0; lastDigit < DIGITS; lastDigit++) {
+                for (int runLength = 1; runLength <= maxRunLength; runLength++) {
+                    for (int completed = 0; completed <= 1; completed++) {
+                        long count = 0;
+                        for (int digit = lastDigit; digit < DIGITS; digit++) {
+                            count += completionsAfter(remaining - 1, lastDigit, runLength, completed == 1, digit);
+                        }
+                        completions[remaining][lastDigit][runLength][completed] = count;
+                    }
+                }
+            }
+        }
+    }
+
+
+    private long completionsAfter(int remaining, int lastDigit, int runLength, boolean completed, int digit) {
+        if (digit == lastDigit) {
+            int nextRunLength = Math.min(runLength + 1, passwordRule.maxRunLength());
+            return completions[remaining][digit][nextRunLength][completed ? 1 : 0];
+        }
+        boolean nextCompleted = completed || passwordRule.isValidRun(runLength);
+        return completions[remaining][digit][1][nextCompleted ? 1 : 0];
+    }
+
+
+    public long countPasswords(long rangeFrom, long rangeTo) {
+        if (rangeFrom > rangeTo) {
+            return 0;
+        }
+        return countPasswordsUpTo(rangeTo) - countPasswordsUpTo(Math.max(0, rangeFrom - 1));
+    }
+
+    /**
+     * @return count of valid passwords from 1 up to and including the bound
+     */
+    public long countPasswordsUpTo(long bound) {
+        if (bound <= 0) {
+            return 0;
+        }
+        String boundDigits = Long.toString(bound);
+        int digitCount = boundDigits.length();
+        if (digitCount > maxDigitCount) {
+            throw new IllegalArgumentException("bound has more than " + maxDigitCount + " digits: " + bound);
+        }
+
+        long count = 0;
+        for (int shorterDigitCount = 1; shorterDigitCount < digitCount; shorterDigitCount++) {
+            for (int firstDigit = 1; firstDigit < DIGITS; firstDigit++) {
+                count += completions[shorterDigitCount - 1][firstDigit][1][0];
+            }
+        }
+
+        int boundFirstDigit = boundDigits.charAt(0) - '0';
+        for (int firstDigit = 1; firstDigit < boundFirstDigit; firstDigit++) {
+            count += completions[digitCount - 1][firstDigit][1][0];
+        }
+        int lastDigit = boundFirstDigit;
+        int runLength = 1;
+        boolean completed = false;
+        for (int i = 1; i < digitCount; i++) {
+            int boundDigit = boundDigits.charAt(i) - '0';
+            int remaining = digitCount - 1 - i;
+            for (int digit = lastDigit; digit < boundDigit; digit++) {
+                count += completionsAfter(remaining, lastDigit, runLength, completed, digit);
+            }
+            if (boundDigit < lastDigit) {
+                return count;
+            } else if (boundDigit == lastDigit) {
+                runLength = Math.min(runLength + 1, passwordRule.maxRunLength());
+            } else {
+                completed = completed || passwordRule.isValidRun(runLength);
+                runLength = 1;
+            }
+            lastDigit = boundDigit;
+        }
+        if (completed || passwordRule.isValidRun(runLength)) {
+            count++; // bound itself is a valid password
+        }
+        return count;
+    }
+
+}
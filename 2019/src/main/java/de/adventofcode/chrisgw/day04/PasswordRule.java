@@ -0,0 +1,35 @@
+package de.adventofcode.chrisgw.day04;
+
+public enum PasswordRule {
+
+    TWO_ADJACENT_DIGITS(2), // part 01: at least two same adjacent digits
+    EXACTLY_TWO_ADJACENT_DIGITS(3); // part 02: a group of exactly two same adjacent digits
+
+
+    private final int maxRunLength;
+
+
+    PasswordRule(int maxRunLength) {
+        this.maxRunLength = maxRunLength;
+    }
+
+
+    /**
+     * @return length, which stands for all longer runs of same adjacent digits
+     */
+    public int maxRunLength() {
+        return maxRunLength;
+    }
+
+    public boolean isValidRun(int runLength) {
+        switch (this) {
+        case TWO_ADJACENT_DIGITS:
+            return runLength >= 2;
+        case EXACTLY_TWO_ADJACENT_DIGITS:
+            return runLength == 2;
+        default:
+            throw new IllegalArgumentException("Unknown password rule: " + this);
+        }
+    }
+
+}
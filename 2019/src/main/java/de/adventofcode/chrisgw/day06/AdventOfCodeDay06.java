@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import static de.adventofcode.chrisgw.day06.ObjectInSpace.CENTER_OF_MASS_NAME;
 
@@ -19,6 +18,7 @@ public class AdventOfCodeDay06 {
     public static final Pattern ORBIT_RELATIONSHIP_PATTERN = Pattern.compile("(.+)\\)(.+)");
 
     private Map<String, ObjectInSpace> universalOrbitMap = new HashMap<>();
+    private OrbitMapIndex orbitMapIndex;
 
 
     public static AdventOfCodeDay06 parseUniversalOrbitMap(List<String> lines) {
@@ -41,6 +41,7 @@ public class AdventOfCodeDay06 {
     }
 
     private ObjectInSpace putObjectInSpace(String objectName) {
+        orbitMapIndex = null;
         return universalOrbitMap.computeIfAbsent(objectName, ObjectInSpace::new);
     }
 
@@ -54,30 +55,25 @@ public class AdventOfCodeDay06 {
     }
 
 
-    public long countTotalOrbits() {
-        return universalOrbitMap.values()
-                .stream()
-                .flatMap(ObjectInSpace::toCenterOfMass)
-                .count();
+    public OrbitMapIndex orbitMapIndex() {
+        if (orbitMapIndex == null) {
+            orbitMapIndex = new OrbitMapIndex(universalOrbitMap.values());
+        }
+        return orbitMapIndex;
     }
 
 
-    public int countNeededOrbitalTransfers() {
-        ObjectInSpace youObject = findObjectInSpace("YOU");
-        ObjectInSpace sanObject = findObjectInSpace("SAN");
-
-        List<ObjectInSpace> toCenterPathYou = youObject.toCenterOfMass().collect(Collectors.toList());
-        List<ObjectInSpace> toCenterPathSan = sanObject.toCenterOfMass().collect(Collectors.toList());
+    public long countTotalOrbits() {
+        return orbitMapIndex().countTotalOrbits();
+    }
 
-        ObjectInSpace intersectionObject = toCenterPathYou.stream()
-                .filter(toCenterPathSan::contains)
-                .findFirst()
-                .orElseThrow();
 
-        int stepsYou = toCenterPathYou.indexOf(intersectionObject);
-        int stepsSan = toCenterPathSan.indexOf(intersectionObject);
-        return stepsYou + stepsSan;
+    public int countNeededOrbitalTransfers() {
+        return countNeededOrbitalTransfers("YOU", "SAN");
     }
 
+    public int countNeededOrbitalTransfers(String fromName, String toName) {
+        return orbitMapIndex().countNeededOrbitalTransfers(fromName, toName);
+    }
 
 }
@@ -0,0 +1,150 @@
+package de.adventofcode.chrisgw.day06;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Orbit tree over int ids with a parent array, the depth of each object and binary lifting tables, so the total
+ * number of orbits is the sum of all depths and each orbital transfer distance needs {@code O(log n)} steps.
+ */
+public class OrbitMapIndex {
+
+    private static final int NO_OBJECT = -1;
+
+    private final Map<String, Integer> objectIds;
+    private final int[] parents;
+    private final int[] depths;
+    private final int[][] ancestors; // ancestors[k][id] is the 2^k-th center object of id
+
+
+    public OrbitMapIndex(Collection<ObjectInSpace> objectsInSpace) {
+        int objectCount = objectsInSpace.size();
+        this.objectIds = new HashMap<>(2 * objectCount);
+        for (ObjectInSpace objectInSpace : objectsInSpace) {
+            objectIds.put(objectInSpace.getName(), objectIds.size());
+        }
+        this.parents = new int[objectCount];
+        for (ObjectInSpace objectInSpace : objectsInSpace) {
+            ObjectInSpace centerObject = objectInSpace.getCenterObject();
+            int parent = centerObject == null ? NO_OBJECT : objectIds.get(centerObject.getName());
+            parents[objectIds.get(objectInSpace.getName())] = parent;
+        }
+        this.depths = calculateDepths(parents);
+        this.ancestors = calculateAncestors(parents, depths);
+    }
+
+
+    private static int[] calculateDepths(int[] parents) {
+        int[] depths = new int[parents.length];
+        Arrays.fill(depths, NO_OBJECT);
+        int[] unknownDepthPath = new int[parents.length];
+        for (int id = 0; id < parents.length; id++) {
+            int pathLength = 0;
+            int current = id;
+            while (current != NO_OBJECT && depths[current] == NO_OBJECT) {
+                if (pathLength == parents.length) {
+                    throw new IllegalArgumentException("Orbit map contains a cycle");
+                }
+                unknownDepthPath[pathLength++] = current;
+                current = parents[current];
+            }
+            int depth = current == NO_OBJECT ? -1 : depths[current];
+            while (pathLength > 0) {
+                depths[unknownDepthPath[--pathLength]] = ++depth;
+            }
+        }
+        return depths;
+    }
+
+    private static int[][] calculateAncestors(int[] parents, int[] depths) {
+        int maxDepth = Arrays.stream(depths).max().orElse(0);
+        int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, maxDepth));
+        int[][] ancestors = new int[levels][];
+        ancestors[0] = parents;
+        for (int k = 1; k < levels; k++) {
+            int[] halfAncestors = ancestors[k - 1];
+            int[] levelAncestors = new int[parents.length];
+            for (int id = 0; id < parents.length; id++) {
+                int halfAncestor = halfAncestors[id];
+                levelAncestors[id] = halfAncestor == NO_OBJECT ? NO_OBJECT : halfAncestors[halfAncestor];
+            }
+            ancestors[k] = levelAncestors;
+        }
+        return ancestors;
+    }
+
+
+    public int idOf(String objectName) {
+        Integer id = objectIds.get(objectName);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown object in space: " + objectName);
+        }
+        return id;
+    }
+
+    public int centerObjectOf(int id) {
+        return parents[id];
+    }
+
+    public int depthOf(int id) {
+        return depths[id];
+    }
+
+
+    public long countTotalOrbits() {
+        long totalOrbits = 0;
+        for (int depth : depths) {
+            totalOrbits += depth;
+        }
+        return totalOrbits;
+    }
+
+
+    public int ancestorOf(int id, int generations) {
+        for (int k = 0; generations > 0 && id != NO_OBJECT; k++, generations >>>= 1) {
+            if ((generations & 1) != 0) {
+                id = k < ancestors.length ? ancestors[k][id] : NO_OBJECT;
+            }
+        }
+        return id;
+    }
+
+    public int lowestCommonCenterObject(int id, int otherId) {
+        if (depths[id] < depths[otherId]) {
+            return lowestCommonCenterObject(otherId, id);
+        }
+        id = ancestorOf(id, depths[id] - depths[otherId]);
+        if (id == otherId) {
+            return id;
+        }
+        for (int k = ancestors.length - 1; k >= 0; k--) {
+            if (ancestors[k][id] != ancestors[k][otherId]) {
+                id = ancestors[k][id];
+                otherId = ancestors[k][otherId];
+            }
+        }
+        if (parents[id] == NO_OBJECT) {
+            throw new IllegalArgumentException("Objects don't orbit a common center of mass");
+        }
+        return parents[id];
+    }
+
+
+    /**
+     * @return orbital transfers to move from the object, which {@code fromName} orbits, to the object {@code toName}
+     * orbits
+     */
+    public int countNeededOrbitalTransfers(String fromName, String toName) {
+        int fromCenter = centerObjectOf(idOf(fromName));
+        int toCenter = centerObjectOf(idOf(toName));
+        if (fromCenter == NO_OBJECT || toCenter == NO_OBJECT) {
+            throw new IllegalArgumentException("Both objects must orbit another object");
+        }
+        int commonCenter = lowestCommonCenterObject(fromCenter, toCenter);
+        return depths[fromCenter] + depths[toCenter] - 2 * depths[commonCenter];
+    }
+
+}
@@ -3,6 +3,9 @@ package de.adventofcode.chrisgw.day07;
 import de.adventofcode.chrisgw.intcode.IntCodeProgram;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -13,10 +16,12 @@ import java.util.stream.IntStream;
  */
 public class AdventOfCodeDay07 {
 
+    private final IntCodeProgram controllerSoftware;
     private List<ThrusterAmplifier> thrusterAmplifiers = new ArrayList<>(5);
 
 
     public AdventOfCodeDay07(IntCodeProgram controllerSoftware) {
+        this.controllerSoftware = controllerSoftware;
         IntStream.range(0, 5).forEach(value -> thrusterAmplifiers.add(new ThrusterAmplifier(controllerSoftware)));
         for (int i = 1; i < thrusterAmplifiers.size(); i++) {
             ThrusterAmplifier outputAmplifier = thrusterAmplifiers.get(i);
@@ -65,30 +70,39 @@ public class AdventOfCodeDay07 {
     }
 
 
-    // part 01
-
-    public long findHighestThrusterSignal() {
+    private List<int[]> possiblePhaseSettings(int firstPhaseSetting) {
         int[] phaseSettings = new int[thrusterAmplifiers.size()];
         Set<Integer> unusedPhaseSettings = IntStream.range(0, thrusterAmplifiers.size())
+                .map(phaseSetting -> phaseSetting + firstPhaseSetting)
                 .boxed()
                 .collect(Collectors.toSet());
-        List<int[]> possibleThrusterPhaseSettings = possiblePhaseSettings(phaseSettings, 0, unusedPhaseSettings);
+        return possiblePhaseSettings(phaseSettings, 0, unusedPhaseSettings);
+    }
+
+
+    // part 01
+
+    public long findHighestThrusterSignal() {
+        List<int[]> possibleThrusterPhaseSettings = possiblePhaseSettings(0);
         return possibleThrusterPhaseSettings.stream().mapToLong(this::runThruster).max().orElseThrow();
     }
 
+    public long findHighestThrusterSignalConcurrently() {
+        return findHighestThrusterSignalConcurrently(possiblePhaseSettings(0));
+    }
+
 
     // part 02
 
     public long findHighestThrusterSignalWithFeedbackLoop() {
-        int[] phaseSettings = new int[thrusterAmplifiers.size()];
-        Set<Integer> unusedPhaseSettings = IntStream.range(0, thrusterAmplifiers.size())
-                .map(phaseSetting -> phaseSetting + 5)
-                .boxed()
-                .collect(Collectors.toSet());
-        List<int[]> possibleThrusterPhaseSettings = possiblePhaseSettings(phaseSettings, 0, unusedPhaseSettings);
+        List<int[]> possibleThrusterPhaseSettings = possiblePhaseSettings(5);
         return possibleThrusterPhaseSettings.stream().mapToLong(this::runThrusterInFeedbackLoopWith).max().orElseThrow();
     }
 
+    public long findHighestThrusterSignalWithFeedbackLoopConcurrently() {
+        return findHighestThrusterSignalConcurrently(possiblePhaseSettings(5));
+    }
+
     public long runThrusterInFeedbackLoopWith(int[] phaseSettings) {
         setThrusterPhaseSettings(phaseSettings);
         thrusterAmplifiers.get(0).addInputSignal(0);
@@ -107,4 +121,28 @@ public class AdventOfCodeDay07 {
     }
 
 
+    // concurrent pipeline
+
+    /**
+     * Runs every phase setting permutation in parallel, each on a {@link ThrusterAmplifierPipeline} borrowed from a
+     * pool, so the amplifier programs are reused between permutations.
+     */
+    private long findHighestThrusterSignalConcurrently(List<int[]> possibleThrusterPhaseSettings) {
+        Queue<ThrusterAmplifierPipeline> pipelinePool = new ConcurrentLinkedQueue<>();
+        ExecutorService amplifierExecutor = Executors.newCachedThreadPool();
+        try {
+            return possibleThrusterPhaseSettings.parallelStream().mapToLong(phaseSettings -> {
+                ThrusterAmplifierPipeline pipeline = pipelinePool.poll();
+                if (pipeline == null) {
+                    pipeline = new ThrusterAmplifierPipeline(controllerSoftware, thrusterAmplifiers.size());
+                }
+                long thrusterSignal = pipeline.runThruster(phaseSettings, amplifierExecutor);
+                pipelinePool.offer(pipeline); // a failed pipeline is dropped, its cancelled amplifiers may still run
+                return thrusterSignal;
+            }).max().orElseThrow();
+        } finally {
+            amplifierExecutor.shutdownNow();
+        }
+    }
+
 }
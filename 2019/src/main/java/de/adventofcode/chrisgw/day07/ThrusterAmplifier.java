@@ -1,5 +1,6 @@
 package de.adventofcode.chrisgw.day07;
 
+import de.adventofcode.chrisgw.intcode.BlockingLongChannel;
 import de.adventofcode.chrisgw.intcode.IntCodeProgram;
 
 
@@ -29,6 +30,25 @@ public class ThrusterAmplifier {
     }
 
 
+    /**
+     * Runs the controller software until it exits, taking input signals from {@code inputChannel} whenever it
+     * waits for input and putting every output signal into {@code outputChannel}.
+     */
+    public void runControllerSoftware(BlockingLongChannel inputChannel, BlockingLongChannel outputChannel)
+            throws InterruptedException {
+        while (true) {
+            controllerSoftware.run();
+            while (controllerSoftware.hasNextOutput()) {
+                outputChannel.put(controllerSoftware.nextOutput());
+            }
+            if (controllerSoftware.isFinished()) {
+                return;
+            }
+            controllerSoftware.addInput(inputChannel.take());
+        }
+    }
+
+
     public void addInputSignal(long inputSignal) {
         controllerSoftware.addInput(inputSignal);
     }
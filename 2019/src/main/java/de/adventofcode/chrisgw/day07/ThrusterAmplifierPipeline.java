@@ -0,0 +1,86 @@
+package de.adventofcode.chrisgw.day07;
+
+import de.adventofcode.chrisgw.intcode.BlockingLongChannel;
+import de.adventofcode.chrisgw.intcode.IntCodeProgram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+
+/**
+ * Ring of {@link ThrusterAmplifier}s, where each amplifier runs on its own thread and blocks only while its
+ * input channel is empty. The output of the last amplifier feeds back into the first one. The first failing
+ * amplifier stops the whole ring, because every other amplifier would wait for its signals forever. The cancelled
+ * amplifiers aren't awaited, so a pipeline must not be run again after {@link #runThruster} failed.
+ */
+public class ThrusterAmplifierPipeline {
+
+    private static final int CHANNEL_CAPACITY = 64;
+
+    private final List<ThrusterAmplifier> thrusterAmplifiers = new ArrayList<>();
+    private final List<BlockingLongChannel> inputChannels = new ArrayList<>();
+
+
+    public ThrusterAmplifierPipeline(IntCodeProgram controllerSoftware, int amplifierCount) {
+        for (int i = 0; i < amplifierCount; i++) {
+            thrusterAmplifiers.add(new ThrusterAmplifier(controllerSoftware));
+            inputChannels.add(new BlockingLongChannel(CHANNEL_CAPACITY));
+        }
+    }
+
+
+    public long runThruster(int[] phaseSettings, ExecutorService amplifierExecutor) {
+        int amplifierCount = thrusterAmplifiers.size();
+        for (int i = 0; i < amplifierCount; i++) {
+            thrusterAmplifiers.get(i).withPhaseSetting(phaseSettings[i]);
+            inputChannels.get(i).clear();
+        }
+
+        BlockingLongChannel firstInputChannel = inputChannels.get(0);
+        CompletionService<Void> amplifierCompletion = new ExecutorCompletionService<>(amplifierExecutor);
+        List<Future<Void>> runningAmplifiers = new ArrayList<>(amplifierCount);
+        try {
+            firstInputChannel.put(0);
+            for (int i = 0; i < amplifierCount; i++) {
+                ThrusterAmplifier thrusterAmplifier = thrusterAmplifiers.get(i);
+                BlockingLongChannel inputChannel = inputChannels.get(i);
+                BlockingLongChannel outputChannel = inputChannels.get((i + 1) % amplifierCount);
+                runningAmplifiers.add(amplifierCompletion.submit(() -> {
+                    thrusterAmplifier.runControllerSoftware(inputChannel, outputChannel);
+                    return null;
+                }));
+            }
+            for (int i = 0; i < amplifierCount; i++) {
+                amplifierCompletion.take().get(); // in order of completion, so the first failure is seen at once
+            }
+        } catch (InterruptedException e) {
+            stopAmplifiers(runningAmplifiers);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running thruster amplifiers", e);
+        } catch (ExecutionException e) {
+            stopAmplifiers(runningAmplifiers);
+            throw new IllegalStateException("Thruster amplifier failed", e.getCause());
+        }
+        return lastSignal(firstInputChannel);
+    }
+
+    private void stopAmplifiers(List<Future<Void>> runningAmplifiers) {
+        runningAmplifiers.forEach(runningAmplifier -> runningAmplifier.cancel(true));
+        inputChannels.forEach(BlockingLongChannel::close);
+    }
+
+    private long lastSignal(BlockingLongChannel firstInputChannel) {
+        long[] remainingSignals = new long[firstInputChannel.getCapacity()];
+        int signalCount = firstInputChannel.drainTo(remainingSignals);
+        if (signalCount == 0) {
+            throw new IllegalStateException("Last thruster amplifier didn't output any signal");
+        }
+        return remainingSignals[signalCount - 1];
+    }
+
+}
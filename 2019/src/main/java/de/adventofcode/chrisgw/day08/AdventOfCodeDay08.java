@@ -1,6 +1,7 @@
 package de.adventofcode.chrisgw.day08;
 
-import java.util.Comparator;
+import java.io.IOException;
+import java.nio.file.Path;
 
 
 /**
@@ -9,29 +10,35 @@ import java.util.Comparator;
  */
 public class AdventOfCodeDay08 {
 
-    private LayeredPixelImage layeredPixelImage;
+    private final LayeredImageDecoder imageDecoder;
 
     public AdventOfCodeDay08(LayeredPixelImage layeredPixelImage) {
-        this.layeredPixelImage = layeredPixelImage;
+        this(LayeredImageDecoder.decode(layeredPixelImage));
+    }
+
+    public AdventOfCodeDay08(LayeredImageDecoder imageDecoder) {
+        this.imageDecoder = imageDecoder;
+    }
+
+    public static AdventOfCodeDay08 decodeImageFile(int width, int height, Path imageFile) throws IOException {
+        return new AdventOfCodeDay08(LayeredImageDecoder.decode(width, height, imageFile));
     }
 
 
-    public LayeredPixelImage findFewest0DigitsImageLayer() {
-        return layeredPixelImage.imageLayers()
-                .min(Comparator.comparingInt(pixelImage -> pixelImage.pixelColorCount(0)))
-                .orElse(layeredPixelImage);
+    public int findFewest0DigitsImageLayer() {
+        return imageDecoder.fewestPixelColorLayer(0);
     }
 
     public int calculatePart01() {
-        LayeredPixelImage fewest0DigitsImageLayer = findFewest0DigitsImageLayer();
-        int digit1Count = fewest0DigitsImageLayer.pixelColorCount(1);
-        int digit2Count = fewest0DigitsImageLayer.pixelColorCount(2);
+        int fewest0DigitsImageLayer = findFewest0DigitsImageLayer();
+        int digit1Count = imageDecoder.pixelColorCount(fewest0DigitsImageLayer, 1);
+        int digit2Count = imageDecoder.pixelColorCount(fewest0DigitsImageLayer, 2);
         return digit1Count * digit2Count;
     }
 
 
     public String printVisiblePixelImagePart02() {
-        LayeredPixelImage visiblePixelImage = layeredPixelImage.visiblePixelImage();
+        LayeredPixelImage visiblePixelImage = imageDecoder.visiblePixelImage();
         StringBuilder sb = new StringBuilder(visiblePixelImage.imageLayerSize());
         for (int row = 0; row < visiblePixelImage.getHeight(); row++) {
             for (int column = 0; column < visiblePixelImage.getWidth(); column++) {
@@ -0,0 +1,127 @@
+package de.adventofcode.chrisgw.day08;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static de.adventofcode.chrisgw.day08.LayeredPixelImage.PIXEL_DATA_TRANSPARENT;
+
+
+/**
+ * Decodes a layered image in a single pass over its digits. Only the composited visible layer and the digit
+ * histogram of each layer are kept, so the memory grows with the layer count by ten counters per layer instead of
+ * with the pixels of every layer.
+ */
+public class LayeredImageDecoder {
+
+    private static final int DIGIT_COUNT = 10;
+    private static final long MAPPED_REGION_SIZE = 1 << 26;
+
+    private final int width;
+    private final int height;
+    private final int[] visibleLayer;
+    private final List<int[]> layerHistograms = new ArrayList<>();
+    private int[] currentHistogram = new int[DIGIT_COUNT];
+    private int pixelIndex = 0;
+
+
+    public LayeredImageDecoder(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.visibleLayer = new int[width * height];
+        Arrays.fill(visibleLayer, PIXEL_DATA_TRANSPARENT);
+    }
+
+
+    public static LayeredImageDecoder decode(LayeredPixelImage layeredPixelImage) {
+        LayeredImageDecoder decoder = new LayeredImageDecoder(layeredPixelImage.getWidth(),
+                layeredPixelImage.getHeight());
+        for (int pixelData : layeredPixelImage.getImageData()) {
+            decoder.acceptPixel(pixelData);
+        }
+        return decoder.finish();
+    }
+
+    /**
+     * Decodes the digits of the image file through memory mapped regions of the file.
+     */
+    public static LayeredImageDecoder decode(int width, int height, Path imageFile) throws IOException {
+        LayeredImageDecoder decoder = new LayeredImageDecoder(width, height);
+        try (FileChannel channel = FileChannel.open(imageFile, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            for (long position = 0; position < fileSize; position += MAPPED_REGION_SIZE) {
+                long regionSize = Math.min(MAPPED_REGION_SIZE, fileSize - position);
+                decoder.accept(channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize));
+            }
+        }
+        return decoder.finish();
+    }
+
+
+    /**
+     * Decodes all digit characters of the buffer. Whitespace like a trailing line break is skipped.
+     */
+    public void accept(ByteBuffer imageDigits) {
+        while (imageDigits.hasRemaining()) {
+            byte digitChar = imageDigits.get();
+            if ('0' <= digitChar && digitChar <= '9') {
+                acceptPixel(digitChar - '0');
+            } else if (!Character.isWhitespace(digitChar)) {
+                throw new IllegalArgumentException("unknown pixelData: " + (char) digitChar);
+            }
+        }
+    }
+
+    public void acceptPixel(int pixelData) {
+        if (pixelData < 0 || pixelData >= DIGIT_COUNT) {
+            throw new IllegalArgumentException("unknown pixelData: " + pixelData);
+        }
+        currentHistogram[pixelData]++;
+        if (visibleLayer[pixelIndex] == PIXEL_DATA_TRANSPARENT) {
+            visibleLayer[pixelIndex] = pixelData;
+        }
+        if (++pixelIndex == visibleLayer.length) {
+            layerHistograms.add(currentHistogram);
+            currentHistogram = new int[DIGIT_COUNT];
+            pixelIndex = 0;
+        }
+    }
+
+    public LayeredImageDecoder finish() {
+        if (pixelIndex != 0) {
+            throw new IllegalStateException("Incomplete last layer with " + pixelIndex + " pixels");
+        }
+        return this;
+    }
+
+
+    public int imageLayerCount() {
+        return layerHistograms.size();
+    }
+
+    public int pixelColorCount(int layerIndex, int pixelColor) {
+        return layerHistograms.get(layerIndex)[pixelColor];
+    }
+
+    public int fewestPixelColorLayer(int pixelColor) {
+        int fewestLayerIndex = -1;
+        for (int layerIndex = 0; layerIndex < layerHistograms.size(); layerIndex++) {
+            if (fewestLayerIndex < 0
+                    || pixelColorCount(layerIndex, pixelColor) < pixelColorCount(fewestLayerIndex, pixelColor)) {
+                fewestLayerIndex = layerIndex;
+            }
+        }
+        return fewestLayerIndex;
+    }
+
+
+    public LayeredPixelImage visiblePixelImage() {
+        return new LayeredPixelImage(width, height, visibleLayer.clone());
+    }
+
+}
@@ -20,12 +20,14 @@ public class AdventOfCodeDay09 {
 
 
     public static long runBoostProgramInTestMode(IntCodeProgram boostProgram) {
+        boostProgram.enableCompilation();
         boostProgram.addInput(1);
         boostProgram.run();
         return boostProgram.lastOutput();
     }
 
     public static long runBoostProgramInBoostMode(IntCodeProgram boostProgram) {
+        boostProgram.enableCompilation();
         boostProgram.addInput(2);
         boostProgram.run();
         return boostProgram.lastOutput();
@@ -1,8 +1,6 @@
 package de.adventofcode.chrisgw.day10;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -15,6 +13,7 @@ import java.util.stream.Stream;
 public class AdventOfCodeDay10 {
 
     private AsteroidMapLocation[][] asteroidMap;
+    private AsteroidVisibilityIndex visibilityIndex;
 
 
     public AdventOfCodeDay10(List<String> asteroidMapStr) {
@@ -35,30 +34,26 @@ public class AdventOfCodeDay10 {
 
 
     public AsteroidMapLocation findBestMonitoringStationLocation() {
-        return asteroidLocations().max(Comparator.comparingLong(AsteroidMapLocation::visibleAsteroidCount))
-                .orElseThrow();
+        return visibilityIndex().bestMonitoringStation();
     }
 
 
     public List<AsteroidMapLocation> vaporizedAsteroids() {
         AsteroidMapLocation lazerLocation = findBestMonitoringStationLocation();
+        return visibilityIndex().vaporizationOrder(lazerLocation);
+    }
+
 
-        List<AsteroidMapLocation> vaporizedAsteroids = new ArrayList<>(200);
-        while (asteroidLocations().skip(1).findAny().isPresent()) {
-            List<AsteroidMapLocation> newVaporizedAsteroids = fireLazer360(lazerLocation);
-            newVaporizedAsteroids.forEach(asteroid -> asteroid.setAsteroid(false));
-            vaporizedAsteroids.addAll(newVaporizedAsteroids);
+    public AsteroidVisibilityIndex visibilityIndex() {
+        if (visibilityIndex == null) {
+            List<AsteroidMapLocation> asteroids = asteroidLocations().collect(Collectors.toList());
+            visibilityIndex = new AsteroidVisibilityIndex(asteroids, width(), height());
         }
-        return vaporizedAsteroids;
+        return visibilityIndex;
     }
 
-
-    private List<AsteroidMapLocation> fireLazer360(AsteroidMapLocation lazerLocation) {
-        return lazerLocation.visibleAsteroids()
-                .map(visibleAsteroidLocation -> AsteroidLineOfSight.between(lazerLocation, visibleAsteroidLocation))
-                .sorted(Comparator.comparingDouble(AsteroidLineOfSight::winkel))
-                .map(AsteroidLineOfSight::getToLocation)
-                .collect(Collectors.toList());
+    void asteroidsChanged() {
+        visibilityIndex = null;
     }
 
 
@@ -78,25 +73,25 @@ public class AdventOfCodeDay10 {
     }
 
     private boolean isLocationOnMap(int x, int y) {
-        boolean isValidY = 0 <= y && y < width();
-        return isValidY && 0 <= x && x < height();
+        boolean isValidY = 0 <= y && y < height();
+        return isValidY && 0 <= x && x < width();
     }
 
 
     public int width() {
-        return asteroidMap.length;
+        return asteroidMap[0].length;
     }
 
     public int height() {
-        return asteroidMap[0].length;
+        return asteroidMap.length;
     }
 
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int y = 0; y < width(); y++) {
-            for (int x = 0; x < height(); x++) {
+        for (int y = 0; y < height(); y++) {
+            for (int x = 0; x < width(); x++) {
                 AsteroidMapLocation mapLocation = asteroidAt(x, y);
                 if (mapLocation.isAsteroid()) {
                     sb.append("#");
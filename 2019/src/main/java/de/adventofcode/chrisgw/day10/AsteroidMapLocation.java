@@ -17,8 +17,14 @@ public class AsteroidMapLocation {
     private boolean asteroid;
 
 
+    public void setAsteroid(boolean asteroid) {
+        this.asteroid = asteroid;
+        asteriodMap.asteroidsChanged();
+    }
+
+
     public long visibleAsteroidCount() {
-        return visibleAsteroids().count();
+        return asteriodMap.visibilityIndex().visibleAsteroidCount(this);
     }
 
     public Stream<AsteroidMapLocation> visibleAsteroids() {
@@ -0,0 +1,135 @@
+package de.adventofcode.chrisgw.day10;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static de.adventofcode.chrisgw.day10.AsteroidLineOfSight.greatestCommonDivisor;
+
+
+/**
+ * Groups the asteroids seen from a location by their direction vector reduced by the greatest common divisor. Each
+ * direction is one visible asteroid, so counting the visible asteroids of all locations needs {@code O(n^2)} steps.
+ */
+public class AsteroidVisibilityIndex {
+
+    private final List<AsteroidMapLocation> asteroids;
+    private final int columns;
+    private final int rows;
+    private final int directionColumns;
+
+
+    public AsteroidVisibilityIndex(List<AsteroidMapLocation> asteroids, int columns, int rows) {
+        this.asteroids = List.copyOf(asteroids);
+        this.columns = columns;
+        this.rows = rows;
+        this.directionColumns = 2 * columns - 1;
+    }
+
+
+    private int directionKey(int dx, int dy) {
+        return (dy + rows - 1) * directionColumns + (dx + columns - 1);
+    }
+
+
+    public int visibleAsteroidCount(AsteroidMapLocation location) {
+        boolean[] seenDirections = new boolean[directionColumns * (2 * rows - 1)];
+        int visibleAsteroidCount = 0;
+        for (AsteroidMapLocation asteroid : asteroids) {
+            int dx = asteroid.getX() - location.getX();
+            int dy = asteroid.getY() - location.getY();
+            if (dx == 0 && dy == 0) {
+                continue;
+            }
+            int gcd = Math.abs(greatestCommonDivisor(dx, dy));
+            int directionKey = directionKey(dx / gcd, dy / gcd);
+            if (!seenDirections[directionKey]) {
+                seenDirections[directionKey] = true;
+                visibleAsteroidCount++;
+            }
+        }
+        return visibleAsteroidCount;
+    }
+
+    /**
+     * @return first asteroid in map order, which sees the most other asteroids; the candidates are counted in
+     * parallel
+     */
+    public AsteroidMapLocation bestMonitoringStation() {
+        int[] visibleAsteroidCounts = IntStream.range(0, asteroids.size())
+                .parallel()
+                .map(index -> visibleAsteroidCount(asteroids.get(index)))
+                .toArray();
+        int bestIndex = 0;
+        for (int index = 1; index < visibleAsteroidCounts.length; index++) {
+            if (visibleAsteroidCounts[index] > visibleAsteroidCounts[bestIndex]) {
+                bestIndex = index;
+            }
+        }
+        return asteroids.get(bestIndex);
+    }
+
+
+    /**
+     * Sorts all other asteroids by the angle of their direction clockwise from up and by their distance along that
+     * direction. The laser vaporizes round-robin the nearest remaining asteroid of each direction, so the n-th
+     * asteroid of a direction is vaporized in the n-th rotation.
+     */
+    public List<AsteroidMapLocation> vaporizationOrder(AsteroidMapLocation laserLocation) {
+        List<LaserTarget> laserTargets = new ArrayList<>(asteroids.size());
+        for (AsteroidMapLocation asteroid : asteroids) {
+            int dx = asteroid.getX() - laserLocation.getX();
+            int dy = asteroid.getY() - laserLocation.getY();
+            if (dx == 0 && dy == 0) {
+                continue;
+            }
+            int gcd = Math.abs(greatestCommonDivisor(dx, dy));
+            int directionX = dx / gcd;
+            int directionY = dy / gcd;
+            laserTargets.add(new LaserTarget(asteroid, directionKey(directionX, directionY),
+                    clockwiseAngle(directionX, directionY), gcd));
+        }
+        laserTargets.sort(Comparator.comparingDouble((LaserTarget target) -> target.angle)
+                .thenComparingInt(target -> target.directionKey)
+                .thenComparingInt(target -> target.distance));
+        for (int i = 1; i < laserTargets.size(); i++) {
+            LaserTarget previousTarget = laserTargets.get(i - 1);
+            LaserTarget target = laserTargets.get(i);
+            if (previousTarget.directionKey == target.directionKey) {
+                target.rotation = previousTarget.rotation + 1;
+            }
+        }
+        laserTargets.sort(Comparator.comparingInt((LaserTarget target) -> target.rotation)
+                .thenComparingDouble(target -> target.angle)
+                .thenComparingInt(target -> target.directionKey));
+
+        List<AsteroidMapLocation> vaporizationOrder = new ArrayList<>(laserTargets.size());
+        laserTargets.forEach(target -> vaporizationOrder.add(target.asteroid));
+        return vaporizationOrder;
+    }
+
+    private static double clockwiseAngle(int dx, int dy) {
+        double angle = Math.atan2(dx, -dy); // y grows downwards
+        return angle < 0 ? angle + 2 * Math.PI : angle;
+    }
+
+
+    private static class LaserTarget {
+
+        private final AsteroidMapLocation asteroid;
+        private final int directionKey;
+        private final double angle;
+        private final int distance;
+        private int rotation = 0;
+
+        private LaserTarget(AsteroidMapLocation asteroid, int directionKey, double angle, int distance) {
+            this.asteroid = asteroid;
+            this.directionKey = directionKey;
+            this.angle = angle;
+            this.distance = distance;
+        }
+
+    }
+
+}
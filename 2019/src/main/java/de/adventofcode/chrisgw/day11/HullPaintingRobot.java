@@ -1,14 +1,10 @@
 package de.adventofcode.chrisgw.day11;
 
+import de.adventofcode.chrisgw.PackedCoordinateMap;
 import de.adventofcode.chrisgw.day03.Direction;
 import de.adventofcode.chrisgw.intcode.IntCodeProgram;
 import lombok.Data;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-
 import static de.adventofcode.chrisgw.day11.HullPanelPaintingColor.BLACK;
 import static de.adventofcode.chrisgw.day11.HullPanelPaintingColor.WHITE;
 
@@ -17,7 +13,7 @@ import static de.adventofcode.chrisgw.day11.HullPanelPaintingColor.WHITE;
 public class HullPaintingRobot {
 
     private final IntCodeProgram robotProgram;
-    private final Map<Integer, Map<Integer, HullPanelPaintingColor>> panelPainting = new HashMap<>();
+    private final PackedCoordinateMap panelPainting = new PackedCoordinateMap();
 
     private Direction direction = Direction.UP;
     private int x = 0;
@@ -46,19 +42,11 @@ public class HullPaintingRobot {
 
 
     private HullPanelPaintingColor nextPaintedPanelHullColor() {
-        long paintedColorCode = robotProgram.nextOutput();
-        if (paintedColorCode == 0) {
-            return BLACK;
-        } else if (paintedColorCode == 1) {
-            return WHITE;
-        } else {
-            throw new IllegalArgumentException("Unknown panel hull color code: " + paintedColorCode);
-        }
+        return HullPanelPaintingColor.fromColorCode((int) robotProgram.nextOutput());
     }
 
     private void paintPanel(HullPanelPaintingColor paintingColor) {
-        Map<Integer, HullPanelPaintingColor> row = panelPainting.computeIfAbsent(y, integer -> new HashMap<>());
-        row.put(x, paintingColor);
+        panelPainting.put(x, y, (byte) paintingColor.getColorCode());
     }
 
 
@@ -80,22 +68,26 @@ public class HullPaintingRobot {
 
 
     public HullPanelPaintingColor panelColorAt(int x, int y) {
-        Map<Integer, HullPanelPaintingColor> row = panelPainting.getOrDefault(y, Collections.emptyMap());
-        return row.getOrDefault(x, BLACK);
+        byte colorCode = panelPainting.get(x, y, (byte) BLACK.getColorCode());
+        return HullPanelPaintingColor.fromColorCode(colorCode);
     }
 
 
     public int paintedPanelsCount() {
-        return panelPainting.values().stream().map(Map::values).mapToInt(Collection::size).sum();
+        return panelPainting.size();
     }
 
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
+        int minX = Math.min(panelPainting.getMinX(), x);
+        int maxX = Math.max(panelPainting.getMaxX(), x);
+        int minY = Math.min(panelPainting.getMinY(), y);
+        int maxY = Math.max(panelPainting.getMaxY(), y);
 
-        for (int y = 0; y >= -5; y--) {
-            for (int x = 0; x <= 42; x++) {
+        StringBuilder sb = new StringBuilder();
+        for (int y = maxY; y >= minY; y--) {
+            for (int x = minX; x <= maxX; x++) {
                 HullPanelPaintingColor panelColor = panelColorAt(x, y);
                 if (this.x == x && this.y == y) {
                     sb.append(directionSign());
@@ -8,6 +8,17 @@ public enum HullPanelPaintingColor {
 
     HullPanelPaintingColor(int colorCode) {this.colorCode = colorCode;}
 
+    public static HullPanelPaintingColor fromColorCode(int colorCode) {
+        switch (colorCode) {
+        case 0:
+            return BLACK;
+        case 1:
+            return WHITE;
+        default:
+            throw new IllegalArgumentException("Unknown panel hull color code: " + colorCode);
+        }
+    }
+
 
     public int getColorCode() {
         return colorCode;
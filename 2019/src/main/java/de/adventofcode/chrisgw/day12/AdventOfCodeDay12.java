@@ -1,11 +1,9 @@
 package de.adventofcode.chrisgw.day12;
 
-import org.apache.commons.math3.util.ArithmeticUtils;
 import org.apache.commons.math3.util.Combinations;
 import org.apache.commons.math3.util.Pair;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -56,22 +54,7 @@ public class AdventOfCodeDay12 {
 
 
     public long findNeededStepsForSystemSameState() {
-        long[] periodsForCoordinate = new long[3];
-
-        while (!Arrays.stream(periodsForCoordinate).allMatch(period -> period > 0)) {
-            this.nextTimeStep();
-            for (int i = 0; i < 3; i++) {
-                if (periodsForCoordinate[i] == 0 && allMoonsAtStartPositionForCoordinate(i)) {
-                    periodsForCoordinate[i] = getTimeSteps();
-                }
-            }
-        }
-
-        return Arrays.stream(periodsForCoordinate).reduce(ArithmeticUtils::lcm).orElseThrow();
-    }
-
-    private boolean allMoonsAtStartPositionForCoordinate(int i) {
-        return moons().allMatch(moon -> moon.isAtStartPoisitionForCoordinate(i));
+        return new MoonSystemPeriodFinder(moons).findPeriod();
     }
 
 
@@ -0,0 +1,82 @@
+package de.adventofcode.chrisgw.day12;
+
+import org.apache.commons.math3.util.ArithmeticUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+
+/**
+ * Finds the steps until a system of any number of moons repeats its state. Gravity only couples the same coordinate
+ * of the moons, so each axis is simulated on its own in flat position and velocity arrays, all axes in parallel, and
+ * the periods of the axes are combined by their least common multiple.
+ */
+public class MoonSystemPeriodFinder {
+
+    private final int[][] axisPositions;
+    private final int[][] axisVelocities;
+
+
+    public MoonSystemPeriodFinder(List<Moon> moons) {
+        int dimension = moons.get(0).dimension();
+        this.axisPositions = new int[dimension][moons.size()];
+        this.axisVelocities = new int[dimension][moons.size()];
+        for (int moonIndex = 0; moonIndex < moons.size(); moonIndex++) {
+            Moon moon = moons.get(moonIndex);
+            for (int axis = 0; axis < dimension; axis++) {
+                axisPositions[axis][moonIndex] = moon.getPosition()[axis];
+                axisVelocities[axis][moonIndex] = moon.getVelocity()[axis];
+            }
+        }
+    }
+
+
+    /**
+     * @return steps until all moons are back in their current positions with their current velocities
+     */
+    public long findPeriod() {
+        return IntStream.range(0, axisPositions.length)
+                .parallel()
+                .mapToLong(axis -> findAxisPeriod(axisPositions[axis], axisVelocities[axis]))
+                .reduce(1, ArithmeticUtils::lcm);
+    }
+
+
+    /**
+     * Each step is reversible, so the first repeated state of an axis is always its start state.
+     */
+    public static long findAxisPeriod(int[] startPositions, int[] startVelocities) {
+        int moonCount = startPositions.length;
+        int[] positions = startPositions.clone();
+        int[] velocities = startVelocities.clone();
+        long steps = 0;
+        do {
+            for (int i = 0; i < moonCount; i++) {
+                int position = positions[i];
+                int velocity = velocities[i];
+                for (int j = i + 1; j < moonCount; j++) {
+                    int gravity = Integer.signum(positions[j] - position);
+                    velocity += gravity;
+                    velocities[j] -= gravity;
+                }
+                velocities[i] = velocity;
+            }
+            for (int i = 0; i < moonCount; i++) {
+                positions[i] += velocities[i];
+            }
+            steps++;
+        } while (!isStartState(positions, velocities, startPositions, startVelocities));
+        return steps;
+    }
+
+    private static boolean isStartState(int[] positions, int[] velocities, int[] startPositions,
+            int[] startVelocities) {
+        for (int i = 0; i < positions.length; i++) {
+            if (velocities[i] != startVelocities[i] || positions[i] != startPositions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -8,8 +8,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Scanner;
 
-import static de.adventofcode.chrisgw.day13.JoystickInput.*;
-
 
 /**
  * 2019 Day 13: Care Package
@@ -29,23 +27,7 @@ public class AdventOfCodeDay13 {
 
     public static long countWinningScore(ArcadeCabinet arcadeCabinet) {
         arcadeCabinet.setQuarters(2);
-        do {
-            arcadeCabinet.runGame();
-            arcadeCabinet.inputJoystick(nextJoystickInput(arcadeCabinet));
-        } while (!arcadeCabinet.isFinishedGame());
-        return arcadeCabinet.getPlayerScore();
-    }
-
-    private static JoystickInput nextJoystickInput(ArcadeCabinet arcadeCabinet) {
-        int ballPostion = arcadeCabinet.ballPostion();
-        int paddlePosition = arcadeCabinet.horizontalPaddlePosition();
-        if (ballPostion > paddlePosition) {
-            return TILTED_RIGHT;
-        } else if (ballPostion < paddlePosition) {
-            return TILTED_LEFT;
-        } else {
-            return NEUTRAL_POSITION;
-        }
+        return arcadeCabinet.autoplay();
     }
 
 
@@ -3,7 +3,6 @@ package de.adventofcode.chrisgw.day13;
 import de.adventofcode.chrisgw.intcode.IntCodeProgram;
 
 import java.util.Arrays;
-import java.util.PrimitiveIterator.OfInt;
 
 import static de.adventofcode.chrisgw.day13.ScreenTileType.*;
 
@@ -13,14 +12,21 @@ public class ArcadeCabinet {
     public static final int QUARTERS_NUMBER_ADDRESS = 0;
     public static final int SCREEN_HEIGHT = 24;
     public static final int SCREEN_WIDTH = 45;
+    private static final int OUTPUT_INSTRUCTION_SIZE = 3;
+
+    private final long[] outputBuffer = new long[OUTPUT_INSTRUCTION_SIZE * SCREEN_WIDTH];
 
     private IntCodeProgram arcadeCabinetProgram;
     private ScreenTileType[][] screenTileGrid;
     private long playerScore = 0;
+    private int ballPosition = -1;
+    private int horizontalPaddlePosition = -1;
+    private long blockTileCount = 0;
 
 
     public ArcadeCabinet(IntCodeProgram arcadeCabinetProgram) {
         this.arcadeCabinetProgram = arcadeCabinetProgram;
+        this.arcadeCabinetProgram.enableCompilation();
         this.screenTileGrid = new ScreenTileType[SCREEN_HEIGHT][SCREEN_WIDTH];
         resetGame();
     }
@@ -39,6 +45,9 @@ public class ArcadeCabinet {
         arcadeCabinetProgram.reset();
         Arrays.stream(screenTileGrid).forEach(screenTileTypes -> Arrays.fill(screenTileTypes, EMPTY));
         playerScore = 0;
+        ballPosition = -1;
+        horizontalPaddlePosition = -1;
+        blockTileCount = 0;
     }
 
     public boolean isFinishedGame() {
@@ -46,7 +55,24 @@ public class ArcadeCabinet {
     }
 
     public boolean isGameWin() {
-        return countTiles(BLOCK) == 0;
+        return blockTileCount == 0;
+    }
+
+
+    /**
+     * Plays the game headless until it is finished, by tilting the joystick towards the ball after each frame. Ball
+     * and paddle are tracked while the output is drawn, so no frame is scanned or rendered.
+     *
+     * @return final player score
+     */
+    public long autoplay() {
+        do {
+            runGame();
+            if (!isFinishedGame()) {
+                arcadeCabinetProgram.addInput(JoystickInput.towards(horizontalPaddlePosition, ballPosition).getCode());
+            }
+        } while (!isFinishedGame());
+        return playerScore;
     }
 
 
@@ -65,12 +91,14 @@ public class ArcadeCabinet {
 
 
     private void drawAllOutputInstructions() {
-        OfInt outputIterator = arcadeCabinetProgram.getAllOutput().mapToInt(value -> (int) value).iterator();
-        while (outputIterator.hasNext()) {
-            int x = outputIterator.nextInt();
-            int y = outputIterator.nextInt();
-            int value = outputIterator.nextInt();
-            drawOutputInstruction(x, y, value);
+        int outputCount;
+        while ((outputCount = arcadeCabinetProgram.drainOutputs(outputBuffer)) > 0) {
+            for (int i = 0; i + OUTPUT_INSTRUCTION_SIZE <= outputCount; i += OUTPUT_INSTRUCTION_SIZE) {
+                int x = (int) outputBuffer[i];
+                int y = (int) outputBuffer[i + 1];
+                int value = (int) outputBuffer[i + 2];
+                drawOutputInstruction(x, y, value);
+            }
         }
     }
 
@@ -95,34 +123,40 @@ public class ArcadeCabinet {
 
     private void drawScreenTile(int x, int y, ScreenTileType screenTileType) {
         ScreenTileType[] screenTileRow = screenTileGrid[y];
+        if (screenTileRow[x] == BLOCK) {
+            blockTileCount--;
+        }
         screenTileRow[x] = screenTileType;
+        switch (screenTileType) {
+        case BLOCK:
+            blockTileCount++;
+            break;
+        case HORIZONTAL_PADDLE:
+            horizontalPaddlePosition = x;
+            break;
+        case BALL:
+            ballPosition = x;
+            break;
+        default:
+            break;
+        }
     }
 
 
     public long countTiles(ScreenTileType screenTileType) {
+        if (screenTileType == BLOCK) {
+            return blockTileCount;
+        }
         return Arrays.stream(screenTileGrid).flatMap(Arrays::stream).filter(screenTileType::equals).count();
     }
 
 
     public int ballPostion() {
-        return screenTilePostionFor(BALL);
+        return ballPosition;
     }
 
     public int horizontalPaddlePosition() {
-        return screenTilePostionFor(HORIZONTAL_PADDLE);
-    }
-
-
-    private int screenTilePostionFor(ScreenTileType screenTileType) {
-        for (int y = 0; y < SCREEN_HEIGHT; y++) {
-            for (int x = 0; x < SCREEN_WIDTH; x++) {
-                ScreenTileType screenTileAt = screenTileAt(x, y);
-                if (screenTileType.equals(screenTileAt)) {
-                    return x;
-                }
-            }
-        }
-        return -1;
+        return horizontalPaddlePosition;
     }
 
 
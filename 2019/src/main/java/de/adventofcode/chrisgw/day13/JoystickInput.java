@@ -20,6 +20,10 @@ public enum JoystickInput {
         throw new IllegalArgumentException("Unknown joystickInput code: " + code);
     }
 
+    public static JoystickInput towards(int paddlePosition, int ballPosition) {
+        return fromCode(Integer.signum(Integer.compare(ballPosition, paddlePosition)));
+    }
+
 
     public int getCode() {
         return code;
@@ -8,6 +8,8 @@ public enum ScreenTileType {
     HORIZONTAL_PADDLE(3), //
     BALL(4);
 
+    private static final ScreenTileType[] SCREEN_TILE_TYPES = values();
+
     private final long tileId;
 
     ScreenTileType(long tileId) {
@@ -15,10 +17,8 @@ public enum ScreenTileType {
     }
 
     public static ScreenTileType fromTileId(long tileId) {
-        for (ScreenTileType tile : values()) {
-            if (tile.getTileId() == tileId) {
-                return tile;
-            }
+        if (0 <= tileId && tileId < SCREEN_TILE_TYPES.length && SCREEN_TILE_TYPES[(int) tileId].tileId == tileId) {
+            return SCREEN_TILE_TYPES[(int) tileId];
         }
         throw new IllegalArgumentException("Unknonw tileId: " + tileId);
     }
@@ -0,0 +1,89 @@
+package de.adventofcode.chrisgw.day15;
+
+import static de.adventofcode.chrisgw.day15.OxygenSystemMapTile.*;
+
+
+/**
+ * Packed grid of {@link OxygenSystemMapTile} ordinals, which grows in every direction to hold each set tile.
+ */
+public class OxygenSystemMap {
+
+    private static final OxygenSystemMapTile[] MAP_TILES = OxygenSystemMapTile.values();
+    private static final int INITIAL_SIZE = 64;
+
+    private byte[] tiles = new byte[INITIAL_SIZE * INITIAL_SIZE];
+    private int minX = -INITIAL_SIZE / 2;
+    private int minY = -INITIAL_SIZE / 2;
+    private int width = INITIAL_SIZE;
+    private int height = INITIAL_SIZE;
+
+
+    public OxygenSystemMapTile tileAt(int x, int y) {
+        if (!isInGrid(x, y)) {
+            return UNKNOWN;
+        }
+        return tileAt(index(x, y));
+    }
+
+    public OxygenSystemMapTile tileAt(int index) {
+        return MAP_TILES[tiles[index]];
+    }
+
+    public void setTile(int x, int y, OxygenSystemMapTile mapTile) {
+        while (!isInGrid(x, y)) {
+            grow();
+        }
+        tiles[index(x, y)] = (byte) mapTile.ordinal();
+    }
+
+
+    private boolean isInGrid(int x, int y) {
+        return minX <= x && x < minX + width && minY <= y && y < minY + height;
+    }
+
+    private void grow() {
+        int grownWidth = 2 * width;
+        int grownHeight = 2 * height;
+        byte[] grownTiles = new byte[grownWidth * grownHeight];
+        int offsetX = width / 2;
+        int offsetY = height / 2;
+        for (int row = 0; row < height; row++) {
+            System.arraycopy(tiles, row * width, grownTiles, (row + offsetY) * grownWidth + offsetX, width);
+        }
+        this.tiles = grownTiles;
+        this.minX -= offsetX;
+        this.minY -= offsetY;
+        this.width = grownWidth;
+        this.height = grownHeight;
+    }
+
+
+    /**
+     * @return index of the tile at x and y, whose horizontal neighbours are at {@code index +- 1} and vertical
+     * neighbours at {@code index +- width}, until the grid grows again
+     */
+    public int index(int x, int y) {
+        return (y - minY) * width + (x - minX);
+    }
+
+    public int size() {
+        return tiles.length;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+}
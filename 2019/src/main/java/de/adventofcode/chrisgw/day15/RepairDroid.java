@@ -2,117 +2,137 @@ package de.adventofcode.chrisgw.day15;
 
 import de.adventofcode.chrisgw.day03.Direction;
 import de.adventofcode.chrisgw.intcode.IntCodeProgram;
-import lombok.Data;
-import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 
-import java.util.*;
-import java.util.stream.Stream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import static de.adventofcode.chrisgw.day15.OxygenSystemMapTile.*;
 import static de.adventofcode.chrisgw.day15.RepairDroidStatusCode.*;
 
 
-@Data
 public class RepairDroid {
 
     private final IntCodeProgram droidProgram;
+    private final OxygenSystemMap map = new OxygenSystemMap();
 
-    private Vector2D position = Vector2D.ZERO;
-    private Direction direction = Direction.UP;
+    private boolean mappedMaze = false;
+    private int oxygenSystemX;
+    private int oxygenSystemY;
+    private boolean foundOxygenSystem = false;
 
-    private Vector2D oxygenSystemLocation = null;
-    private Map<Vector2D, OxygenSystemMapTile> map = new HashMap<>();
+    private int distanceToOxygenSystem = -1;
+    private int neededTimeForOxygenToSpread = -1;
 
 
-    public void mappingMazeUsingRightHandRule() {
-        Iterator<Direction> directionIterator = Stream.iterate(direction.rotateRight(), Direction::rotateLeft)
-                .limit(4)
-                .iterator();
+    public RepairDroid(IntCodeProgram droidProgram) {
+        this.droidProgram = droidProgram;
+    }
+
 
-        while (directionIterator.hasNext()) {
-            Direction nextDirection = directionIterator.next();
-            RepairDroidStatusCode droidStatusCode = move(nextDirection);
-            if (REACHED_LOCATION.equals(droidStatusCode)) {
-                if (oxygenSystemLocation != null) {
-                    // until we reached oxygenSystemLocation again
-                    return;
+    /**
+     * Maps the whole maze breadth first. Each unknown neighbour of a reached position is probed by a fork of the
+     * droid program standing on that position, so every probe is a single move command and status code.
+     */
+    public void mappingMaze() {
+        Deque<MazePosition> frontier = new ArrayDeque<>();
+        map.setTile(0, 0, EMPTY);
+        frontier.add(new MazePosition(0, 0, droidProgram.fork()));
+        while (!frontier.isEmpty()) {
+            MazePosition mazePosition = frontier.poll();
+            for (Direction direction : Direction.values()) {
+                int x = mazePosition.x + direction.getDx();
+                int y = mazePosition.y + direction.getDy();
+                if (map.tileAt(x, y) != UNKNOWN) {
+                    continue;
+                }
+                IntCodeProgram probeProgram = mazePosition.program.fork();
+                RepairDroidStatusCode statusCode = move(probeProgram, direction);
+                if (HIT_WALL.equals(statusCode)) {
+                    map.setTile(x, y, WALL);
+                    continue;
                 }
-                // run along maze yet again so we fully cover the whole maze
-                mappingMazeUsingRightHandRule();
-                oxygenSystemLocation = position;
-                return;
-            } else if (MOVED.equals(droidStatusCode)) {
-                mappingMazeUsingRightHandRule();
-                return;
+                map.setTile(x, y, EMPTY);
+                if (REACHED_LOCATION.equals(statusCode)) {
+                    oxygenSystemX = x;
+                    oxygenSystemY = y;
+                    foundOxygenSystem = true;
+                }
+                frontier.add(new MazePosition(x, y, probeProgram));
             }
         }
+        mappedMaze = true;
+        if (!foundOxygenSystem) {
+            throw new IllegalStateException("Mapped whole maze without finding oxygen system");
+        }
     }
 
 
     public int shortestDistanceToOxygenSystem() {
-        if (oxygenSystemLocation == null) {
-            mappingMazeUsingRightHandRule();
-        }
-        Vector2D startPosition = Vector2D.ZERO;
-        Set<Vector2D> visitedNodes = new HashSet<>();
-        return distanceShortestPathBreadthFirstSearch(startPosition, visitedNodes, Integer.MAX_VALUE, 0);
+        spreadOxygen();
+        return distanceToOxygenSystem;
     }
 
-    private int distanceShortestPathBreadthFirstSearch(Vector2D currentPosition, Set<Vector2D> visitedNodes,
-            int minDistance, int distance) {
-        if (oxygenSystemLocation.equals(currentPosition)) {
-            return Integer.min(distance, minDistance);
-        }
-
-        visitedNodes.add(currentPosition);
-        for (Direction direction : Direction.values()) {
-            double x = currentPosition.getX() + direction.getDx();
-            double y = currentPosition.getY() + direction.getDy();
-            Vector2D nextPosition = new Vector2D(x, y);
-            if (isEmptySpaceAt(nextPosition) && !visitedNodes.contains(nextPosition)) {
-                minDistance = distanceShortestPathBreadthFirstSearch(nextPosition, visitedNodes, minDistance,
-                        distance + 1);
-            }
-        }
-        visitedNodes.remove(currentPosition);
-        return minDistance;
+    public int neededTimeForOxygenToSpread() {
+        spreadOxygen();
+        return neededTimeForOxygenToSpread;
     }
 
 
-    public int neededTimeForOxygenToSpread() {
-        if (oxygenSystemLocation == null) {
-            mappingMazeUsingRightHandRule();
+    /**
+     * Breadth first search level by level from the oxygen system over the map indices: the level of the start
+     * position is the shortest distance to the oxygen system and the last level the time for oxygen to spread.
+     */
+    private void spreadOxygen() {
+        if (neededTimeForOxygenToSpread >= 0) {
+            return;
         }
-
-        int emptyTiles = (int) map.values().stream().filter(EMPTY::equals).count();
-        Set<Vector2D> coveredTiles = new HashSet<>(emptyTiles);
-        Set<Vector2D> outerVectors = new HashSet<>(emptyTiles);
-        outerVectors.add(oxygenSystemLocation);
-        int neededStepts = 0;
-        while (coveredTiles.size() < emptyTiles) {
-            neededStepts++;
+        if (!mappedMaze) {
+            mappingMaze();
+        }
+        int width = map.getWidth();
+        int[] neighbourOffsets = new int[] { 1, -1, width, -width };
+        int startIndex = map.index(0, 0);
+
+        boolean[] filledWithOxygen = new boolean[map.size()];
+        int[] currentLevel = new int[map.size()];
+        int[] nextLevel = new int[map.size()];
+        int currentLevelSize = 1;
+        currentLevel[0] = map.index(oxygenSystemX, oxygenSystemY);
+        filledWithOxygen[currentLevel[0]] = true;
+
+        int minutes = 0;
+        while (true) {
+            int nextLevelSize = 0;
+            for (int i = 0; i < currentLevelSize; i++) {
+                int index = currentLevel[i];
+                if (index == startIndex) {
+                    distanceToOxygenSystem = minutes;
+                }
+                for (int neighbourOffset : neighbourOffsets) {
+                    int neighbourIndex = index + neighbourOffset;
+                    if (!filledWithOxygen[neighbourIndex] && map.tileAt(neighbourIndex) == EMPTY) {
+                        filledWithOxygen[neighbourIndex] = true;
+                        nextLevel[nextLevelSize++] = neighbourIndex;
+                    }
+                }
+            }
+            if (nextLevelSize == 0) {
+                break;
+            }
+            int[] swap = currentLevel;
+            currentLevel = nextLevel;
+            nextLevel = swap;
+            currentLevelSize = nextLevelSize;
+            minutes++;
         }
-        return neededStepts;
+        neededTimeForOxygenToSpread = minutes;
     }
 
 
-    private RepairDroidStatusCode move(Direction direction) {
-        droidProgram.addInput(moveCommandCode(direction));
-        droidProgram.run();
-        RepairDroidStatusCode statusCode = readDroidStatusCode();
-        if (HIT_WALL.equals(statusCode)) {
-            putWallIn(direction);
-            return statusCode;
-        } else if (MOVED.equals(statusCode) || REACHED_LOCATION.equals(statusCode)) {
-            double x = position.getX() + direction.getDx();
-            double y = position.getY() + direction.getDy();
-            this.position = new Vector2D(x, y);
-            this.direction = direction;
-            putSpace();
-            return statusCode;
-        } else {
-            throw new IllegalArgumentException("Unknown statuscode from repair droid: " + statusCode);
-        }
+    private RepairDroidStatusCode move(IntCodeProgram program, Direction direction) {
+        program.addInput(moveCommandCode(direction));
+        program.run();
+        return RepairDroidStatusCode.valueOf((int) program.nextOutput());
     }
 
 
@@ -131,65 +151,36 @@ public class RepairDroid {
         }
     }
 
-    private RepairDroidStatusCode readDroidStatusCode() {
-        int nextOutput = (int) droidProgram.nextOutput();
-        return RepairDroidStatusCode.valueOf(nextOutput);
-    }
 
-
-    private void putWallIn(Direction direction) {
-        double x = position.getX() + direction.getDx();
-        double y = position.getY() + direction.getDy();
-        Vector2D wallPosition = new Vector2D(x, y);
-        map.put(wallPosition, WALL);
-    }
-
-    private void putSpace() {
-        map.put(position, EMPTY);
-    }
-
-
-    private boolean isWallAt(Vector2D location) {
-        return WALL.equals(mapTileAt(location));
-    }
-
-    private boolean isEmptySpaceAt(Vector2D location) {
-        return EMPTY.equals(mapTileAt(location));
-    }
-
-    private OxygenSystemMapTile mapTileAt(Vector2D location) {
-        return map.getOrDefault(location, UNKNOWN);
+    public OxygenSystemMap getMap() {
+        return map;
     }
 
 
     @Override
     public String toString() {
-        double fromY = map.keySet().stream().mapToDouble(Vector2D::getY).min().orElse(0.0);
-        double toY = map.keySet().stream().mapToDouble(Vector2D::getY).max().orElse(0.0);
-        double fromX = map.keySet().stream().mapToDouble(Vector2D::getX).min().orElse(0.0);
-        double toX = map.keySet().stream().mapToDouble(Vector2D::getX).max().orElse(0.0);
-
         StringBuilder sb = new StringBuilder();
-        for (double y = fromY; y <= toY; y++) {
-            for (double x = fromX; x <= toX; x++) {
-                Vector2D location = new Vector2D(x, y);
-                sb.append(mapSignAt(location));
+        for (int y = map.getMinY(); y < map.getMinY() + map.getHeight(); y++) {
+            StringBuilder row = new StringBuilder();
+            for (int x = map.getMinX(); x < map.getMinX() + map.getWidth(); x++) {
+                row.append(mapSignAt(x, y));
+            }
+            String rowStr = row.toString().stripTrailing();
+            if (!rowStr.isEmpty()) {
+                sb.append(rowStr).append("\n");
             }
-            sb.append("\n");
         }
         return sb.toString();
     }
 
-    private char mapSignAt(Vector2D location) {
-        if (position.equals(location)) {
-            return 'D';
-        } else if (location.equals(location.getZero())) {
+    private char mapSignAt(int x, int y) {
+        if (x == 0 && y == 0) {
             return 'E';
-        } else if (location.equals(oxygenSystemLocation)) {
+        } else if (foundOxygenSystem && x == oxygenSystemX && y == oxygenSystemY) {
             return 'O';
         }
 
-        OxygenSystemMapTile mapTile = mapTileAt(location);
+        OxygenSystemMapTile mapTile = map.tileAt(x, y);
         switch (mapTile) {
         case UNKNOWN:
             return ' ';
@@ -202,4 +193,19 @@ public class RepairDroid {
         }
     }
 
+
+    private static class MazePosition {
+
+        private final int x;
+        private final int y;
+        private final IntCodeProgram program;
+
+        private MazePosition(int x, int y, IntCodeProgram program) {
+            this.x = x;
+            this.y = y;
+            this.program = program;
+        }
+
+    }
+
 }
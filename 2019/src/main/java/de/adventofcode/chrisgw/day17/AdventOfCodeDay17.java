@@ -3,8 +3,6 @@ package de.adventofcode.chrisgw.day17;
 import de.adventofcode.chrisgw.intcode.IntCodeProgram;
 
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
@@ -17,13 +15,14 @@ import static java.util.Objects.requireNonNull;
 public class AdventOfCodeDay17 {
 
     private final IntCodeProgram asciiProgram;
-    private String cameraImage;
+    private ScaffoldGrid scaffoldGrid;
 
     private boolean continuousVideoFeed;
 
 
     public AdventOfCodeDay17(IntCodeProgram asciiProgram) {
         this.asciiProgram = requireNonNull(asciiProgram);
+        this.asciiProgram.enableCompilation();
     }
 
 
@@ -34,43 +33,39 @@ public class AdventOfCodeDay17 {
 
 
     private String readCameraImage() {
-        return asciiProgram.getAllOutput()
-                .mapToObj(value -> String.valueOf((char) value))
-                .collect(Collectors.joining(""));
+        long[] outputBuffer = new long[1024];
+        StringBuilder cameraImage = new StringBuilder(asciiProgram.outputCount());
+        int outputCount;
+        while ((outputCount = asciiProgram.drainOutputs(outputBuffer)) > 0) {
+            for (int i = 0; i < outputCount; i++) {
+                cameraImage.append((char) outputBuffer[i]);
+            }
+        }
+        return cameraImage.toString();
     }
 
 
     public long sumOfCameraAlignmentParameters() {
-        List<ScaffoldIntersection> scaffoldIntersections = scaffoldIntersections().collect(Collectors.toList());
-        return scaffoldIntersections.stream().mapToInt(ScaffoldIntersection::alignmentParameter).sum();
+        return scaffoldGrid.scaffoldIntersections().stream().mapToInt(ScaffoldIntersection::alignmentParameter).sum();
     }
 
     public Stream<ScaffoldIntersection> scaffoldIntersections() {
-        return IntStream.range(0, cameraImage.length())
-                .filter(this::isScaffoldIntersection)
-                .mapToObj(index -> new ScaffoldIntersection(row(index), column(index)));
-    }
-
-    private boolean isScaffoldIntersection(int index) {
-        int row = row(index);
-        int column = column(index);
-        return adjecentCameraPixels(row, column).allMatch(CameraPixel::isScaffoldPixel);
-    }
-
-    private Stream<CameraPixel> adjecentCameraPixels(int row, int column) {
-        Stream<CameraPixel> adjecentCameraPixelColumn = IntStream.rangeClosed(-1, 1)
-                .mapToObj(drow -> cameraPixelAt(column, row + drow));
-        Stream<CameraPixel> adjecentCameraPixelRow = IntStream.rangeClosed(-1, 1)
-                .mapToObj(dcolumn -> cameraPixelAt(column + dcolumn, row));
-        return Stream.concat(adjecentCameraPixelColumn, adjecentCameraPixelRow);
+        return scaffoldGrid.scaffoldIntersections().stream();
     }
 
 
-    public void visitScaffoldAtLeastOnce() {
+    public long visitScaffoldAtLeastOnce() {
+        if (scaffoldGrid == null) {
+            run();
+        }
+        MovementRoutines movementRoutines = compressMovementRoutines();
+        asciiProgram.reset();
         wakeUpVacuumRobot();
-        inputMainMovementRoutine();
-        inputMovementFunctions();
+        inputMainMovementRoutine(movementRoutines);
+        inputMovementFunctions(movementRoutines);
         inputContinousVideoFeed();
+        asciiProgram.run();
+        return asciiProgram.lastOutput(); // collected space dust
     }
 
 
@@ -79,42 +74,50 @@ public class AdventOfCodeDay17 {
     }
 
 
-    private void inputMainMovementRoutine() {
-        asciiProgram.addInput('A');
-        asciiProgram.addInput('B');
-        asciiProgram.addInput('C');
-        asciiProgram.addInput('\n');
+    private void inputMainMovementRoutine(MovementRoutines movementRoutines) {
+        inputAsciiLine(movementRoutines.mainRoutineAsciiCode());
     }
 
-    private void inputMovementFunctions() {
-        for (int i = 0; i < 3; i++) {
-            int stepsForward = '0' + i + 1;
-            asciiProgram.addInput(stepsForward);
-            asciiProgram.addInput('\n');
+    private void inputMovementFunctions(MovementRoutines movementRoutines) {
+        List<RobotMovementFunction> movementFunctions = movementRoutines.getMovementFunctions();
+        for (int i = 0; i < MovementRoutineCompressor.FUNCTION_NAMES.length; i++) {
+            if (i < movementFunctions.size()) {
+                inputAsciiLine(movementFunctions.get(i).toAsciiCode());
+            } else {
+                inputAsciiLine("");
+            }
         }
     }
 
 
     private void inputContinousVideoFeed() {
         if (continuousVideoFeed) {
-            asciiProgram.addInput('y');
+            inputAsciiLine("y");
         } else {
-            asciiProgram.addInput('n');
+            inputAsciiLine("n");
+        }
+    }
+
+    private void inputAsciiLine(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            asciiProgram.addInput(line.charAt(i));
         }
         asciiProgram.addInput('\n');
     }
 
 
     public RobotMovementFunction completePath() {
-        VacuumRobot vacuumRobot = new VacuumRobot(this);
-        RobotMovementFunction completeMovement = vacuumRobot.followScaffold();
-        // TODO completePath
-        return completeMovement;
+        VacuumRobot vacuumRobot = new VacuumRobot(scaffoldGrid);
+        return vacuumRobot.followScaffold();
+    }
+
+    public MovementRoutines compressMovementRoutines() {
+        return new MovementRoutineCompressor(completePath()).compress();
     }
 
 
     public AdventOfCodeDay17 withCameraImage(String cameraImageStr) {
-        this.cameraImage = cameraImageStr;
+        this.scaffoldGrid = new ScaffoldGrid(cameraImageStr);
         return this;
     }
 
@@ -125,46 +128,22 @@ public class AdventOfCodeDay17 {
 
 
     public CameraPixel cameraPixelAt(int column, int row) {
-        if (column < 0 || column >= cameraImageWidth() || row < 0 || row >= cameraImageHeight()) {
-            return CameraPixel.EMPTY;
-        }
-        int rowStartIndex = row * (cameraImageWidth() + 1);
-        int index = rowStartIndex + column;
-        char cameraPixelSign = cameraImage.charAt(index);
-        return CameraPixel.valueOf(cameraPixelSign);
+        return scaffoldGrid.cameraPixelAt(column, row);
     }
 
 
     public int cameraImageWidth() {
-        return cameraImage.indexOf('\n');
+        return scaffoldGrid.getWidth();
     }
 
     public int cameraImageHeight() {
-        return cameraImage.length() / cameraImageWidth();
-    }
-
-
-    public int column(int index) {
-        return index % (cameraImageWidth() + 1);
-    }
-
-    public int row(int index) {
-        return index / (cameraImageWidth() + 1);
+        return scaffoldGrid.getHeight();
     }
 
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(asciiProgram).append("\n");
-        for (int row = 0; row < cameraImageHeight(); row++) {
-            for (int column = 0; column < cameraImageWidth() - 1; column++) {
-                CameraPixel cameraPixel = cameraPixelAt(column, row);
-                sb.append(cameraPixel.getCameraPixelSign());
-            }
-            sb.append('\n');
-        }
-        return sb.toString();
+        return asciiProgram + "\n" + scaffoldGrid;
     }
 
 
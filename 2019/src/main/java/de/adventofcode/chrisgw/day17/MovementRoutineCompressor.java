@@ -0,0 +1,154 @@
+package de.adventofcode.chrisgw.day17;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Splits a complete robot path into a main routine of calls to at most three movement functions, where the main
+ * routine and every function fit into {@link RobotMovementFunction#MAX_ASCII_LENGTH} characters.
+ * <p>
+ * Backtracking search over the path tokens: a function is only defined at its first call, as a prefix of the
+ * remaining path, so A, B and C are tried in a canonical order. Whether a function matches at a path position is
+ * answered by a precomputed table of common prefix lengths between all path suffixes, and failed search states are
+ * remembered.
+ */
+public class MovementRoutineCompressor {
+
+    public static final String[] FUNCTION_NAMES = { "A", "B", "C" };
+    public static final int MAX_MAIN_ROUTINE_CALLS = (RobotMovementFunction.MAX_ASCII_LENGTH + 1) / 2;
+    public static final int MAX_FUNCTION_MOVEMENTS = (RobotMovementFunction.MAX_ASCII_LENGTH + 1) / 2;
+
+    private final List<RobotMovement> path;
+    private final int[] tokens;
+    private final int[] tokenLengths;
+    private final int[][] commonPrefixLengths;
+
+    private final int[] functionStarts = new int[FUNCTION_NAMES.length];
+    private final int[] functionLengths = new int[FUNCTION_NAMES.length];
+    private final int[] mainRoutine = new int[MAX_MAIN_ROUTINE_CALLS];
+    private int mainRoutineCalls;
+    private final Set<Long> failedStates = new HashSet<>();
+
+
+    public MovementRoutineCompressor(RobotMovementFunction completePath) {
+        this.path = completePath.getRobotMovements();
+        this.tokens = new int[path.size()];
+        this.tokenLengths = new int[path.size()];
+        Map<String, Integer> tokenIds = new HashMap<>();
+        for (int i = 0; i < path.size(); i++) {
+            String asciiCode = path.get(i).toAsciiCode();
+            tokens[i] = tokenIds.computeIfAbsent(asciiCode, code -> tokenIds.size());
+            tokenLengths[i] = asciiCode.length();
+        }
+        this.commonPrefixLengths = commonPrefixLengths(tokens);
+    }
+
+    private static int[][] commonPrefixLengths(int[] tokens) {
+        int[][] commonPrefixLengths = new int[tokens.length + 1][tokens.length + 1];
+        for (int i = tokens.length - 1; i >= 0; i--) {
+            for (int j = tokens.length - 1; j >= 0; j--) {
+                if (tokens[i] == tokens[j]) {
+                    commonPrefixLengths[i][j] = commonPrefixLengths[i + 1][j + 1] + 1;
+                }
+            }
+        }
+        return commonPrefixLengths;
+    }
+
+
+    public MovementRoutines compress() {
+        failedStates.clear();
+        if (tokens.length > MAX_MAIN_ROUTINE_CALLS * MAX_FUNCTION_MOVEMENTS || !compress(0, 0, 0)) {
+            throw new IllegalStateException("Could not compress path into movement routines: " + path);
+        }
+        return toMovementRoutines();
+    }
+
+    private boolean compress(int position, int definedFunctions, int calls) {
+        if (position == tokens.length) {
+            mainRoutineCalls = calls;
+            return true;
+        }
+        if (calls == MAX_MAIN_ROUTINE_CALLS) {
+            return false;
+        }
+        long state = searchState(position, definedFunctions, calls);
+        if (failedStates.contains(state)) {
+            return false;
+        }
+
+        for (int function = 0; function < definedFunctions; function++) {
+            if (commonPrefixLengths[functionStarts[function]][position] >= functionLengths[function]) {
+                mainRoutine[calls] = function;
+                if (compress(position + functionLengths[function], definedFunctions, calls + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        if (definedFunctions < FUNCTION_NAMES.length) {
+            functionStarts[definedFunctions] = position;
+            mainRoutine[calls] = definedFunctions;
+            for (int length = maxFunctionLength(position); length > 0; length--) {
+                functionLengths[definedFunctions] = length;
+                if (compress(position + length, definedFunctions + 1, calls + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        failedStates.add(state);
+        return false;
+    }
+
+    private int maxFunctionLength(int position) {
+        int asciiLength = -1; // no comma before the first movement
+        int length = 0;
+        while (position + length < tokens.length) {
+            asciiLength += tokenLengths[position + length] + 1;
+            if (asciiLength > RobotMovementFunction.MAX_ASCII_LENGTH) {
+                break;
+            }
+            length++;
+        }
+        return length;
+    }
+
+    private long searchState(int position, int definedFunctions, int calls) {
+        // positions stay below 128 and lengths below 16, function A always starts at position 0
+        long state = ((long) position << 6) | (calls << 2) | definedFunctions;
+        for (int function = 0; function < definedFunctions; function++) {
+            state = (state << 4) | functionLengths[function];
+            if (function > 0) {
+                state = (state << 7) | functionStarts[function];
+            }
+        }
+        return state;
+    }
+
+
+    private MovementRoutines toMovementRoutines() {
+        List<String> mainRoutineNames = new ArrayList<>(mainRoutineCalls);
+        int definedFunctions = 0;
+        for (int call = 0; call < mainRoutineCalls; call++) {
+            mainRoutineNames.add(FUNCTION_NAMES[mainRoutine[call]]);
+            definedFunctions = Math.max(definedFunctions, mainRoutine[call] + 1);
+        }
+
+        List<RobotMovementFunction> movementFunctions = new ArrayList<>();
+        for (int function = 0; function < definedFunctions; function++) {
+            RobotMovementFunction movementFunction = new RobotMovementFunction(FUNCTION_NAMES[function]);
+            int functionStart = functionStarts[function];
+            path.subList(functionStart, functionStart + functionLengths[function])
+                    .forEach(movementFunction::addRobotMovement);
+            movementFunctions.add(movementFunction);
+        }
+        return new MovementRoutines(mainRoutineNames, movementFunctions);
+    }
+
+}
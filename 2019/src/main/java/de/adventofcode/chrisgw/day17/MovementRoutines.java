@@ -0,0 +1,19 @@
+package de.adventofcode.chrisgw.day17;
+
+import lombok.Data;
+
+import java.util.List;
+
+
+@Data
+public class MovementRoutines {
+
+    private final List<String> mainRoutine;
+    private final List<RobotMovementFunction> movementFunctions;
+
+
+    public String mainRoutineAsciiCode() {
+        return String.join(",", mainRoutine);
+    }
+
+}
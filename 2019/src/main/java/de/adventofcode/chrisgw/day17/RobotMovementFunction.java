@@ -10,6 +10,8 @@ import java.util.stream.Collectors;
 @Data
 public class RobotMovementFunction {
 
+    public static final int MAX_ASCII_LENGTH = 20;
+
     private final String functionName;
     private final List<RobotMovement> robotMovements = new ArrayList<>();
 
@@ -28,7 +30,7 @@ public class RobotMovementFunction {
 
 
     public String toAsciiCode() {
-        return robotMovements.stream().map(RobotMovement::toString).collect(Collectors.joining(","));
+        return robotMovements.stream().map(RobotMovement::toAsciiCode).collect(Collectors.joining(","));
     }
 
 
@@ -37,7 +39,7 @@ public class RobotMovementFunction {
     }
 
     public boolean isFull() {
-        return memorySize() > 20;
+        return toAsciiCode().length() > MAX_ASCII_LENGTH;
     }
 
 
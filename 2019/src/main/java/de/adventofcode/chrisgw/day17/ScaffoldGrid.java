@@ -0,0 +1,94 @@
+package de.adventofcode.chrisgw.day17;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Camera image as rows of pixel signs. Every position outside of the image is {@link CameraPixel#EMPTY}.
+ */
+public class ScaffoldGrid {
+
+    private static final CameraPixel[] CAMERA_PIXELS_BY_SIGN = new CameraPixel[128];
+
+    static {
+        for (CameraPixel cameraPixel : CameraPixel.values()) {
+            CAMERA_PIXELS_BY_SIGN[cameraPixel.getCameraPixelSign()] = cameraPixel;
+        }
+    }
+
+    private final char[][] rows;
+    private final int width;
+
+
+    public ScaffoldGrid(String cameraImage) {
+        List<char[]> rows = new ArrayList<>();
+        for (String row : cameraImage.split("\n")) {
+            if (!row.isEmpty()) {
+                rows.add(row.toCharArray());
+            }
+        }
+        this.rows = rows.toArray(new char[0][]);
+        this.width = rows.stream().mapToInt(row -> row.length).max().orElse(0);
+    }
+
+
+    public CameraPixel cameraPixelAt(int column, int row) {
+        if (row < 0 || row >= rows.length || column < 0 || column >= rows[row].length) {
+            return CameraPixel.EMPTY;
+        }
+        char cameraPixelSign = rows[row][column];
+        CameraPixel cameraPixel = cameraPixelSign < CAMERA_PIXELS_BY_SIGN.length
+                ? CAMERA_PIXELS_BY_SIGN[cameraPixelSign] : null;
+        if (cameraPixel == null) {
+            throw new IllegalArgumentException("Unknown cameraPixel: " + cameraPixelSign);
+        }
+        return cameraPixel;
+    }
+
+    public boolean isScaffoldAt(int column, int row) {
+        if (row < 0 || row >= rows.length || column < 0 || column >= rows[row].length) {
+            return false;
+        }
+        return rows[row][column] != CameraPixel.EMPTY.getCameraPixelSign();
+    }
+
+
+    public boolean isScaffoldIntersection(int column, int row) {
+        return isScaffoldAt(column, row) //
+                && isScaffoldAt(column, row - 1) && isScaffoldAt(column, row + 1) //
+                && isScaffoldAt(column - 1, row) && isScaffoldAt(column + 1, row);
+    }
+
+    public List<ScaffoldIntersection> scaffoldIntersections() {
+        List<ScaffoldIntersection> scaffoldIntersections = new ArrayList<>();
+        for (int row = 0; row < rows.length; row++) {
+            for (int column = 0; column < rows[row].length; column++) {
+                if (isScaffoldIntersection(column, row)) {
+                    scaffoldIntersections.add(new ScaffoldIntersection(row, column));
+                }
+            }
+        }
+        return scaffoldIntersections;
+    }
+
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return rows.length;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder((width + 1) * rows.length);
+        for (char[] row : rows) {
+            sb.append(row).append('\n');
+        }
+        return sb.toString();
+    }
+
+}
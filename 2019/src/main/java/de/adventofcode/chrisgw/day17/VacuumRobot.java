@@ -10,7 +10,7 @@ import static de.adventofcode.chrisgw.day17.RobotMovement.RobotMovementType.*;
 @Data
 public class VacuumRobot {
 
-    private final AdventOfCodeDay17 camera;
+    private final ScaffoldGrid scaffoldGrid;
 
     private int column;
     private int row;
@@ -20,14 +20,42 @@ public class VacuumRobot {
     public RobotMovementFunction followScaffold() {
         findVacuumRobotOnCameraImage();
         RobotMovementFunction completePath = new RobotMovementFunction("completePath");
-        // TODO followScaffold
-        return completePath;
+        while (true) {
+            int stepsForward = 0;
+            while (isScaffoldInDirection(direction)) {
+                moveForward(1);
+                stepsForward++;
+            }
+            if (stepsForward > 0) {
+                completePath.addRobotMovement(RobotMovement.forward(stepsForward));
+            }
+
+            if (isScaffoldInDirection(direction.rotateLeft())) {
+                completePath.addRobotMovement(RobotMovement.left());
+                turnLeft();
+            } else if (isScaffoldInDirection(direction.rotateRight())) {
+                completePath.addRobotMovement(RobotMovement.right());
+                turnRight();
+            } else if (completePath.memorySize() == 0 && isScaffoldInDirection(direction.rotateRight().rotateRight())) {
+                // the robot may start facing away from the scaffold
+                completePath.addRobotMovement(RobotMovement.right());
+                completePath.addRobotMovement(RobotMovement.right());
+                turnRight();
+                turnRight();
+            } else {
+                return completePath;
+            }
+        }
+    }
+
+    private boolean isScaffoldInDirection(Direction direction) {
+        return scaffoldGrid.isScaffoldAt(column + direction.getDx(), row - direction.getDy());
     }
 
     private void findVacuumRobotOnCameraImage() {
-        for (int row = 0; row < camera.cameraImageHeight(); row++) {
-            for (int column = 0; column < camera.cameraImageWidth() - 1; column++) {
-                CameraPixel cameraPixel = camera.cameraPixelAt(row, column);
+        for (int row = 0; row < scaffoldGrid.getHeight(); row++) {
+            for (int column = 0; column < scaffoldGrid.getWidth(); column++) {
+                CameraPixel cameraPixel = scaffoldGrid.cameraPixelAt(column, row);
                 if (cameraPixel.isRobotPixel()) {
                     this.row = row;
                     this.column = column;
@@ -36,7 +64,7 @@ public class VacuumRobot {
                 }
             }
         }
-        throw new IllegalStateException("Could not find vacuum robot on cameraImage: " + camera);
+        throw new IllegalStateException("Could not find vacuum robot on cameraImage: " + scaffoldGrid);
     }
 
 
@@ -55,7 +83,7 @@ public class VacuumRobot {
 
     private void moveForward(int units) {
         this.column += direction.getDx() * units;
-        this.row += direction.getDy() * units;
+        this.row -= direction.getDy() * units; // camera rows grow downwards
     }
 
     private void turnLeft() {
@@ -0,0 +1,179 @@
+package de.adventofcode.chrisgw.day19;
+
+import de.adventofcode.chrisgw.PackedCoordinateMap;
+import de.adventofcode.chrisgw.intcode.IntCodeProgram;
+import de.adventofcode.chrisgw.intcode.IntCodeSnapshot;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Scans the tractor beam row by row as affected spans {@code [left, right]}. The span of a row is derived from the
+ * nearest scanned row above by scaling its edges, so only points near both edges of the span are probed. Each point
+ * is probed at most once by the drone program.
+ */
+public class TractorBeamScanner {
+
+    private static final int INITIAL_SCAN_WIDTH = 16;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte NOT_AFFECTED = 1;
+    private static final byte AFFECTED = 2;
+
+    private final IntCodeProgram droneProgram;
+    private final IntCodeSnapshot bootedDroneProgram;
+    private final PackedCoordinateMap probeCache = new PackedCoordinateMap();
+    private final TreeMap<Long, AffectedBeamRow> affectedRows = new TreeMap<>();
+    private long probeCount = 0;
+
+
+    public TractorBeamScanner(IntCodeProgram droneProgram) {
+        this.droneProgram = droneProgram;
+        droneProgram.reset();
+        droneProgram.run();
+        this.bootedDroneProgram = droneProgram.snapshot();
+    }
+
+
+    public boolean isAffected(long x, long y) {
+        if (x < 0 || y < 0) {
+            return false;
+        }
+        long key = x << 32 | y;
+        byte cachedProbe = probeCache.get(key, UNKNOWN);
+        if (cachedProbe != UNKNOWN) {
+            return cachedProbe == AFFECTED;
+        }
+        probeCount++;
+        droneProgram.restore(bootedDroneProgram);
+        droneProgram.addInputs(x, y);
+        droneProgram.run();
+        boolean affected = droneProgram.nextOutput() == 1;
+        probeCache.put(key, affected ? AFFECTED : NOT_AFFECTED);
+        return affected;
+    }
+
+
+    /**
+     * @return affected span of the row, whose left is greater than its right, if no point of the row is affected
+     */
+    public AffectedBeamRow affectedRow(long row) {
+        AffectedBeamRow affectedRow = affectedRows.get(row);
+        if (affectedRow == null) {
+            affectedRow = scanAffectedRow(row);
+            affectedRows.put(row, affectedRow);
+        }
+        return affectedRow;
+    }
+
+    private AffectedBeamRow scanAffectedRow(long row) {
+        AffectedBeamRow referenceRow = nearestAffectedRowAbove(row);
+        if (referenceRow == null) {
+            return scanWholeRow(row);
+        }
+        long estimatedLeft = referenceRow.getLeft() * row / referenceRow.getRow();
+        long estimatedRight = referenceRow.getRight() * row / referenceRow.getRow();
+        long searchRadius = estimatedRight - estimatedLeft + INITIAL_SCAN_WIDTH;
+
+        long affectedX = -1;
+        for (long distance = 0; distance <= searchRadius && affectedX < 0; distance++) {
+            if (isAffected(estimatedLeft + distance, row)) {
+                affectedX = estimatedLeft + distance;
+            } else if (isAffected(estimatedLeft - distance, row)) {
+                affectedX = estimatedLeft - distance;
+            }
+        }
+        if (affectedX < 0) {
+            return new AffectedBeamRow(row, 0, -1);
+        }
+
+        long left = affectedX;
+        while (isAffected(left - 1, row)) {
+            left--;
+        }
+        long right = Math.max(affectedX, estimatedRight);
+        if (isAffected(right, row)) {
+            while (isAffected(right + 1, row)) {
+                right++;
+            }
+        } else {
+            do {
+                right--;
+            } while (!isAffected(right, row));
+        }
+        return new AffectedBeamRow(row, left, right);
+    }
+
+    private AffectedBeamRow nearestAffectedRowAbove(long row) {
+        for (Map.Entry<Long, AffectedBeamRow> entry = affectedRows.lowerEntry(row); entry != null;
+             entry = affectedRows.lowerEntry(entry.getKey())) {
+            AffectedBeamRow affectedRow = entry.getValue();
+            if (affectedRow.getRow() > 0 && !affectedRow.isEmpty()) {
+                return affectedRow;
+            }
+        }
+        return null;
+    }
+
+    private AffectedBeamRow scanWholeRow(long row) {
+        long scanWidth = 4 * row + INITIAL_SCAN_WIDTH;
+        long left = 0;
+        while (left < scanWidth && !isAffected(left, row)) {
+            left++;
+        }
+        if (left == scanWidth) {
+            return new AffectedBeamRow(row, 0, -1);
+        }
+        long right = left;
+        while (isAffected(right + 1, row)) {
+            right++;
+        }
+        return new AffectedBeamRow(row, left, right);
+    }
+
+
+    /**
+     * Searches the first row, which fits the upper edge of a square ship, by galloping over the rows until a ship
+     * fits and a binary search between the last two galloped rows.
+     *
+     * @return upper left corner of the ship as {@code x * 10000 + y}
+     */
+    public long findFirstSquare(int shipSize) {
+        long lowerRow = 0;
+        long upperRow = shipSize;
+        while (!fitsShip(upperRow, shipSize)) {
+            lowerRow = upperRow;
+            upperRow *= 2;
+        }
+        while (lowerRow + 1 < upperRow) {
+            long middleRow = (lowerRow + upperRow) >>> 1;
+            if (fitsShip(middleRow, shipSize)) {
+                upperRow = middleRow;
+            } else {
+                lowerRow = middleRow;
+            }
+        }
+        while (upperRow > 0 && fitsShip(upperRow - 1, shipSize)) { // beam edges are not exactly monotone
+            upperRow--;
+        }
+        long x = affectedRow(upperRow + shipSize - 1).getLeft();
+        return x * 10000 + upperRow;
+    }
+
+    private boolean fitsShip(long upperRow, int shipSize) {
+        AffectedBeamRow upperShipRow = affectedRow(upperRow);
+        AffectedBeamRow lowerShipRow = affectedRow(upperRow + shipSize - 1);
+        if (upperShipRow.isEmpty() || lowerShipRow.isEmpty()) {
+            return false;
+        }
+        long width = upperShipRow.getRight() - lowerShipRow.getLeft() + 1;
+        return width >= shipSize && upperShipRow.isAffected(lowerShipRow.getLeft());
+    }
+
+
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+}
@@ -0,0 +1,130 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Bounded blocking FIFO channel of primitive {@code long} values to connect {@link IntCodeProgram}s running on
+ * different threads. A {@link #close() closed} channel releases every blocked {@link #put(long)} and
+ * {@link #take()} call with an {@link IllegalStateException}.
+ */
+public class BlockingLongChannel {
+
+    private final int capacity;
+    private final LongRingBuffer values;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private boolean closed = false;
+
+
+    public BlockingLongChannel(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Expect positive capacity, but was: " + capacity);
+        }
+        this.capacity = capacity;
+        this.values = new LongRingBuffer(capacity);
+    }
+
+
+    public void put(long value) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!closed && values.size() >= capacity) {
+                notFull.await();
+            }
+            checkNotClosed();
+            values.addLast(value);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!closed && values.isEmpty()) {
+                notEmpty.await();
+            }
+            if (values.isEmpty()) {
+                checkNotClosed();
+            }
+            long value = values.removeFirst();
+            notFull.signal();
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("BlockingLongChannel is closed");
+        }
+    }
+
+
+    /**
+     * Removes all currently available values into {@code dst} without blocking.
+     *
+     * @return number of values written into {@code dst}
+     */
+    public int drainTo(long[] dst) {
+        lock.lock();
+        try {
+            int count = values.drainTo(dst);
+            notFull.signalAll();
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all values and opens the channel again, if it was closed.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            values.clear();
+            closed = false;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public int size() {
+        lock.lock();
+        try {
+            return values.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+}
@@ -0,0 +1,62 @@
+package de.adventofcode.chrisgw.intcode;
+
+/**
+ * Packs a decoded opCode word into a single int: the instruction opCode in the lowest byte and the
+ * {@link ParameterMode} ordinal of each of the three parameters in the following 2-bit groups.
+ * The value {@code 0} is reserved for "not yet decoded".
+ */
+final class DecodedOpCode {
+
+    static final int UNDECODED = 0;
+
+    private static final int DECODED_FLAG = 1 << 16;
+    private static final int OP_CODE_MASK = 0xFF;
+    private static final int PARAMETER_MODE_SHIFT = 8;
+    private static final int PARAMETER_MODE_BITS = 2;
+    private static final int PARAMETER_MODE_MASK = (1 << PARAMETER_MODE_BITS) - 1;
+
+
+    private DecodedOpCode() {
+
+    }
+
+
+    static int opCodeOf(long opCodeWord) {
+        if (opCodeWord < 0) {
+            throw new IllegalArgumentException("Unknown opCode: " + opCodeWord);
+        }
+        return (int) (opCodeWord % 100);
+    }
+
+    /**
+     * Decodes the opCode and the parameter modes of the first {@code parameterCount} parameters. The mode digits of
+     * parameters, which the instruction doesn't read, are ignored.
+     */
+    static int decode(long opCodeWord, int parameterCount) {
+        int opCode = opCodeOf(opCodeWord);
+        long parameterModeCodes = opCodeWord / 100;
+        int decodedOpCode = DECODED_FLAG | opCode;
+        for (int index = 0; index < parameterCount; index++) {
+            int parameterModeCode = (int) (parameterModeCodes % 10);
+            ParameterMode parameterMode = ParameterMode.forCode(parameterModeCode);
+            decodedOpCode |= parameterMode.ordinal() << parameterModeShift(index);
+            parameterModeCodes /= 10;
+        }
+        return decodedOpCode;
+    }
+
+
+    static int opCode(int decodedOpCode) {
+        return decodedOpCode & OP_CODE_MASK;
+    }
+
+    static ParameterMode parameterMode(int decodedOpCode, int index) {
+        int ordinal = (decodedOpCode >>> parameterModeShift(index)) & PARAMETER_MODE_MASK;
+        return ParameterMode.forOrdinal(ordinal);
+    }
+
+    private static int parameterModeShift(int index) {
+        return PARAMETER_MODE_SHIFT + index * PARAMETER_MODE_BITS;
+    }
+
+}
@@ -0,0 +1,77 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.Arrays;
+
+
+/**
+ * Contiguous memory, which grows by 1.5 times when an address behind its end is written.
+ */
+public class DenseIntCodeMemory implements IntCodeMemory {
+
+    private long[] memory;
+    private boolean shared = false;
+
+
+    public DenseIntCodeMemory(long[] initialState) {
+        this.memory = Arrays.copyOf(initialState, initialState.length);
+    }
+
+    private DenseIntCodeMemory(DenseIntCodeMemory intCodeMemory) {
+        this.memory = intCodeMemory.memory;
+        this.shared = true;
+    }
+
+
+    @Override
+    public long valueAt(int address) {
+        if (address >= memory.length) {
+            return 0;
+        }
+        return memory[address];
+    }
+
+    @Override
+    public void setValueAt(int address, long value) {
+        if (address >= memory.length) {
+            growMemoryToAdress(address);
+        } else if (shared) {
+            memory = Arrays.copyOf(memory, memory.length);
+            shared = false;
+        }
+        memory[address] = value;
+    }
+
+    private void growMemoryToAdress(int address) {
+        int oldCapacity = memory.length;
+        int minCapacity = address + 1;
+        int grow = Math.max(minCapacity - oldCapacity, /* minimum growth */
+                oldCapacity >> 1 /* preferred growth */);
+        int newCapacity = oldCapacity + grow;
+        memory = Arrays.copyOf(memory, newCapacity);
+        shared = false;
+    }
+
+
+    @Override
+    public int size() {
+        return memory.length;
+    }
+
+    @Override
+    public long[] toArray() {
+        return Arrays.copyOf(memory, memory.length);
+    }
+
+    @Override
+    public void forEachPage(PageVisitor pageVisitor) {
+        pageVisitor.visitPage(0, memory, 0, memory.length);
+    }
+
+
+    @Override
+    public IntCodeMemory copyOnWrite() {
+        this.shared = true;
+        return new DenseIntCodeMemory(this);
+    }
+
+}
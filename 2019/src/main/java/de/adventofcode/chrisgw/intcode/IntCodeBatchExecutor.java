@@ -0,0 +1,88 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * Runs the same {@link IntCodeProgram} many times with different inputs in parallel. Every worker thread reuses
+ * its own program instance, which is reset before each run.
+ */
+public class IntCodeBatchExecutor {
+
+    private final IntCodeProgram programImage;
+    private final ForkJoinPool forkJoinPool;
+    private final ThreadLocal<IntCodeProgram> workerPrograms;
+
+
+    public IntCodeBatchExecutor(IntCodeProgram programImage) {
+        this(programImage, ForkJoinPool.commonPool());
+    }
+
+    public IntCodeBatchExecutor(IntCodeProgram programImage, ForkJoinPool forkJoinPool) {
+        this.programImage = new IntCodeProgram(programImage);
+        this.forkJoinPool = forkJoinPool;
+        this.workerPrograms = ThreadLocal.withInitial(() -> new IntCodeProgram(this.programImage));
+    }
+
+
+    /**
+     * Runs the program once per input vector until it exits or waits for more input.
+     *
+     * @return all outputs of each run in the order of the given input vectors
+     */
+    public List<long[]> runAll(Stream<long[]> inputVectors) {
+        List<long[]> inputVectorList = inputVectors.collect(Collectors.toList());
+        return runAll(inputVectorList, IntCodeProgram::addInputs, IntCodeBatchExecutor::allOutput);
+    }
+
+    /**
+     * Runs the program once per task. Before each run {@code prepareRun} sets up the freshly reset program for the
+     * task, afterwards {@code runResult} extracts the result from the program.
+     *
+     * @return result of each run in the order of the given tasks
+     */
+    public <T, R> List<R> runAll(List<T> tasks, BiConsumer<IntCodeProgram, T> prepareRun,
+            Function<IntCodeProgram, R> runResult) {
+        return forkJoinPool.submit(() -> tasks.parallelStream().map(task -> {
+            IntCodeProgram intCodeProgram = workerPrograms.get();
+            intCodeProgram.reset();
+            prepareRun.accept(intCodeProgram, task);
+            intCodeProgram.run();
+            return runResult.apply(intCodeProgram);
+        }).collect(Collectors.toList())).join();
+    }
+
+    /**
+     * Runs the program for the tasks {@code 0} until {@code taskCount} and stops as soon as the lowest matching task
+     * is known, so the runs of all later tasks are cancelled.
+     *
+     * @return lowest task, for which the finished run matches {@code isMatch}
+     */
+    public OptionalInt findFirst(int taskCount, ObjIntConsumer<IntCodeProgram> prepareRun,
+            Predicate<IntCodeProgram> isMatch) {
+        return forkJoinPool.submit(() -> IntStream.range(0, taskCount).parallel().filter(task -> {
+            IntCodeProgram intCodeProgram = workerPrograms.get();
+            intCodeProgram.reset();
+            prepareRun.accept(intCodeProgram, task);
+            intCodeProgram.run();
+            return isMatch.test(intCodeProgram);
+        }).findFirst()).join();
+    }
+
+
+    private static long[] allOutput(IntCodeProgram intCodeProgram) {
+        long[] outputs = new long[intCodeProgram.outputCount()];
+        intCodeProgram.drainOutputs(outputs);
+        return outputs;
+    }
+
+}
@@ -0,0 +1,158 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Binary checkpoint file of an {@link IntCodeProgram}. The memory is stored as runs of addresses, whose value
+ * differs from the initial state, so a checkpoint of a booted program is hardly larger than its initial state.
+ * <pre>
+ * int magic, int version, byte finished, int instructionPointer, int relativeBase
+ * int initialStateLength, long[] initialState
+ * int memorySize, int runCount, runCount * (int address, int length, long[] values)
+ * int inputCount, long[] inputs
+ * int outputCount, long[] outputs
+ * </pre>
+ */
+final class IntCodeCheckpoint {
+
+    private static final int MAGIC = 0x49434350; // ICCP
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 9 * Integer.BYTES + 1;
+
+
+    private IntCodeCheckpoint() {
+    }
+
+
+    static void write(IntCodeProgram program, Path checkpointFile) throws IOException {
+        long[] initialState = program.getInitialState();
+        IntCodeMemory memory = program.memory();
+        long[] inputs = program.pendingInputs();
+        long[] outputs = program.pendingOutputs();
+
+        int[] runStatistics = new int[2]; // runCount, runValueCount
+        forEachChangedRun(memory, initialState, (address, values, offset, length) -> {
+            runStatistics[0]++;
+            runStatistics[1] += length;
+        });
+        int runCount = runStatistics[0];
+        int runValueCount = runStatistics[1];
+
+        int byteCount = HEADER_BYTES + 2 * Integer.BYTES * runCount + Long.BYTES * (initialState.length
+                + runValueCount + inputs.length + outputs.length);
+        ByteBuffer buffer = ByteBuffer.allocate(byteCount);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.put((byte) (program.isFinished() ? 1 : 0));
+        buffer.putInt(program.getInstructionPointer()).putInt(program.relativeBase());
+        putLongs(buffer, initialState);
+
+        buffer.putInt(memory.size()).putInt(runCount);
+        forEachChangedRun(memory, initialState, (address, values, offset, length) -> {
+            buffer.putInt(address).putInt(length);
+            buffer.asLongBuffer().put(values, offset, length);
+            buffer.position(buffer.position() + Long.BYTES * length);
+        });
+
+        putLongs(buffer, inputs);
+        putLongs(buffer, outputs);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(checkpointFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Visits the runs of addresses, whose value differs from the initial state. Only the pages backed by the memory
+     * are scanned, so a far write doesn't scan every address in front of it.
+     */
+    static void forEachChangedRun(IntCodeMemory memory, long[] initialState,
+            IntCodeMemory.PageVisitor runVisitor) {
+        memory.forEachPage((startAddress, values, offset, length) -> {
+            int end = offset + length;
+            int addressOffset = startAddress - offset;
+            for (int i = offset; i < end; i++) {
+                if (!isChanged(values[i], initialState, addressOffset + i)) {
+                    continue;
+                }
+                int runStart = i;
+                while (i < end && isChanged(values[i], initialState, addressOffset + i)) {
+                    i++;
+                }
+                runVisitor.visitPage(addressOffset + runStart, values, runStart, i - runStart);
+            }
+        });
+    }
+
+    private static boolean isChanged(long value, long[] initialState, int address) {
+        long initialValue = address < initialState.length ? initialState[address] : 0;
+        return value != initialValue;
+    }
+
+    private static void putLongs(ByteBuffer buffer, long[] values) {
+        buffer.putInt(values.length);
+        buffer.asLongBuffer().put(values);
+        buffer.position(buffer.position() + Long.BYTES * values.length);
+    }
+
+
+    static IntCodeProgram read(Path checkpointFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(checkpointFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated IntCode checkpoint: " + checkpointFile, e);
+        }
+    }
+
+    private static IntCodeProgram read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("No IntCode checkpoint");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported IntCode checkpoint version " + version);
+        }
+        boolean finished = buffer.get() != 0;
+        int instructionPointer = buffer.getInt();
+        int relativeBase = buffer.getInt();
+        IntCodeProgram program = new IntCodeProgram(getLongs(buffer));
+
+        IntCodeMemory memory = new PagedIntCodeMemory(program.getInitialState());
+        int memorySize = buffer.getInt();
+        if (memorySize > 0) { // keeps the memory size, even if its highest addresses are unchanged
+            memory.setValueAt(memorySize - 1, memory.valueAt(memorySize - 1));
+        }
+        int runCount = buffer.getInt();
+        for (int run = 0; run < runCount; run++) {
+            int address = buffer.getInt();
+            int length = buffer.getInt();
+            for (int i = 0; i < length; i++) {
+                memory.setValueAt(address + i, buffer.getLong());
+            }
+        }
+
+        long[] inputs = getLongs(buffer);
+        long[] outputs = getLongs(buffer);
+        program.restore(new IntCodeSnapshot(memory, instructionPointer, relativeBase, finished, inputs, outputs));
+        return program;
+    }
+
+    private static long[] getLongs(ByteBuffer buffer) {
+        long[] values = new long[buffer.getInt()];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + Long.BYTES * values.length);
+        return values;
+    }
+
+}
@@ -0,0 +1,326 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Compiles the basic blocks of an {@link IntCodeProgram} lazily into arrays of {@link CompiledInstruction}s, whose
+ * parameters are resolved once at compile time. Blocks are looked up by their start address, so every jump is a
+ * single array access. Once a write lands in compiled code, the compiled code is invalidated and the program has to
+ * fall back to interpreting.
+ */
+final class IntCodeCompiler {
+
+    private final IntCodeProgram program;
+    private final CompiledBlock[] blocks;
+    private final boolean[] codeAddresses;
+    private boolean invalidated = false;
+
+
+    IntCodeCompiler(IntCodeProgram program, int codeSize) {
+        this.program = program;
+        this.blocks = new CompiledBlock[codeSize];
+        this.codeAddresses = new boolean[codeSize];
+    }
+
+
+    /**
+     * @return compiled block starting at given address or {@code null}, if the instruction at this address can't be
+     * compiled and has to be interpreted
+     */
+    CompiledBlock blockAt(int address) {
+        if (address < 0 || address >= blocks.length) {
+            return null;
+        }
+        CompiledBlock block = blocks[address];
+        if (block == null) {
+            block = compileBlock(address);
+            blocks[address] = block;
+        }
+        return block;
+    }
+
+    boolean isCode(int address) {
+        return address >= 0 && address < codeAddresses.length && codeAddresses[address];
+    }
+
+    void invalidate() {
+        this.invalidated = true;
+    }
+
+    boolean isInvalidated() {
+        return invalidated;
+    }
+
+
+    private CompiledBlock compileBlock(int startAddress) {
+        List<CompiledInstruction> instructions = new ArrayList<>();
+        List<Integer> nextAddresses = new ArrayList<>();
+        List<Boolean> writesMemory = new ArrayList<>();
+        boolean startsWithInput = false;
+
+        int address = startAddress;
+        while (true) {
+            IntCodeIntstruction instruction = compilableInstructionAt(address);
+            if (instruction == null) {
+                break;
+            }
+            if (IntCodeIntstruction.INPUT.equals(instruction)) {
+                if (address != startAddress) {
+                    break;
+                }
+                startsWithInput = true;
+            }
+            int decodedOpCode = program.decode(program.valueAt(address));
+            instructions.add(compileInstruction(instruction, decodedOpCode, address));
+            writesMemory.add(writesMemory(instruction));
+            int instructionSize = Math.max(instruction.instructionSize(), 1);
+            for (int codeAddress = address; codeAddress < address + instructionSize; codeAddress++) {
+                codeAddresses[codeAddress] = true;
+            }
+            address += instructionSize;
+            nextAddresses.add(address);
+            if (isBlockEnd(instruction)) {
+                break;
+            }
+        }
+
+        if (instructions.isEmpty()) {
+            return null;
+        }
+        int[] nextAddressArray = nextAddresses.stream().mapToInt(Integer::intValue).toArray();
+        boolean[] writesMemoryArray = new boolean[writesMemory.size()];
+        for (int i = 0; i < writesMemoryArray.length; i++) {
+            writesMemoryArray[i] = writesMemory.get(i);
+        }
+        return new CompiledBlock(instructions.toArray(new CompiledInstruction[0]), nextAddressArray,
+                writesMemoryArray, startsWithInput);
+    }
+
+    private IntCodeIntstruction compilableInstructionAt(int address) {
+        if (address >= blocks.length) {
+            return null;
+        }
+        int decodedOpCode;
+        try {
+            decodedOpCode = program.decode(program.valueAt(address));
+        } catch (IllegalArgumentException e) {
+            return null; // let the interpreter report invalid instructions
+        }
+        IntCodeIntstruction instruction = program.instructionFor(DecodedOpCode.opCode(decodedOpCode));
+        if (instruction == null || address + Math.max(instruction.instructionSize(), 1) > blocks.length) {
+            return null;
+        }
+        return instruction;
+    }
+
+    private static boolean writesMemory(IntCodeIntstruction instruction) {
+        switch (instruction) {
+        case ADD:
+        case MULITPLY:
+        case INPUT:
+        case LESS_THAN:
+        case EQUALS:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isBlockEnd(IntCodeIntstruction instruction) {
+        switch (instruction) {
+        case JUMP_IF_TRUE:
+        case JUMP_IF_FALSE:
+        case EXIT:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+
+    private CompiledInstruction compileInstruction(IntCodeIntstruction instruction, int decodedOpCode,
+            int address) {
+        switch (instruction) {
+        case ADD: {
+            Operand firstSummand = operand(decodedOpCode, address, 0);
+            Operand secondSummand = operand(decodedOpCode, address, 1);
+            Destination destination = destination(decodedOpCode, address, 2);
+            return intCodeProgram -> {
+                long sum = firstSummand.read(intCodeProgram) + secondSummand.read(intCodeProgram);
+                intCodeProgram.setValueAt(destination.address(intCodeProgram), sum);
+                return false;
+            };
+        }
+        case MULITPLY: {
+            Operand firstFactor = operand(decodedOpCode, address, 0);
+            Operand secondFactor = operand(decodedOpCode, address, 1);
+            Destination destination = destination(decodedOpCode, address, 2);
+            return intCodeProgram -> {
+                long product = firstFactor.read(intCodeProgram) * secondFactor.read(intCodeProgram);
+                intCodeProgram.setValueAt(destination.address(intCodeProgram), product);
+                return false;
+            };
+        }
+        case INPUT: {
+            Destination destination = destination(decodedOpCode, address, 0);
+            return intCodeProgram -> {
+                long input = intCodeProgram.nextInput();
+                intCodeProgram.setValueAt(destination.address(intCodeProgram), input);
+                return false;
+            };
+        }
+        case OUTPUT: {
+            Operand output = operand(decodedOpCode, address, 0);
+            return intCodeProgram -> {
+                intCodeProgram.addOutput(output.read(intCodeProgram));
+                return false;
+            };
+        }
+        case JUMP_IF_TRUE:
+        case JUMP_IF_FALSE: {
+            boolean jumpIfTrue = IntCodeIntstruction.JUMP_IF_TRUE.equals(instruction);
+            Operand testValue = operand(decodedOpCode, address, 0);
+            Operand jumpDestination = operand(decodedOpCode, address, 1);
+            return intCodeProgram -> {
+                if ((testValue.read(intCodeProgram) != 0) == jumpIfTrue) {
+                    intCodeProgram.moveInstructionPointerTo((int) jumpDestination.read(intCodeProgram));
+                    return true;
+                }
+                return false;
+            };
+        }
+        case LESS_THAN: {
+            Operand firstValue = operand(decodedOpCode, address, 0);
+            Operand secondValue = operand(decodedOpCode, address, 1);
+            Destination destination = destination(decodedOpCode, address, 2);
+            return intCodeProgram -> {
+                boolean lessThan = firstValue.read(intCodeProgram) < secondValue.read(intCodeProgram);
+                intCodeProgram.setValueAt(destination.address(intCodeProgram), lessThan ? 1 : 0);
+                return false;
+            };
+        }
+        case EQUALS: {
+            Operand firstValue = operand(decodedOpCode, address, 0);
+            Operand secondValue = operand(decodedOpCode, address, 1);
+            Destination destination = destination(decodedOpCode, address, 2);
+            return intCodeProgram -> {
+                boolean equalsTo = firstValue.read(intCodeProgram) == secondValue.read(intCodeProgram);
+                intCodeProgram.setValueAt(destination.address(intCodeProgram), equalsTo ? 1 : 0);
+                return false;
+            };
+        }
+        case ADJUST_RELATIVE_BASE: {
+            Operand parameterValue = operand(decodedOpCode, address, 0);
+            return intCodeProgram -> {
+                intCodeProgram.adjustRelativeBase(parameterValue.read(intCodeProgram));
+                return false;
+            };
+        }
+        case EXIT:
+            return intCodeProgram -> {
+                intCodeProgram.finish();
+                intCodeProgram.moveInstructionPointerTo(address);
+                return true;
+            };
+        default:
+            throw new IllegalArgumentException("Can't compile instruction: " + instruction);
+        }
+    }
+
+
+    private Operand operand(int decodedOpCode, int address, int index) {
+        int parameterAddress = address + 1 + index;
+        long parameter = program.valueAt(parameterAddress);
+        ParameterMode parameterMode = DecodedOpCode.parameterMode(decodedOpCode, index);
+        switch (parameterMode) {
+        case POSITION_MODE:
+            return intCodeProgram -> intCodeProgram.valueAt((int) parameter);
+        case IMMEDIATE_MODE:
+            return intCodeProgram -> parameter;
+        case RELATIVE_MODE:
+            return intCodeProgram -> intCodeProgram.valueAt(intCodeProgram.relativeBase() + (int) parameter);
+        default:
+            throw new IllegalArgumentException("unknown parameterMode: " + parameterMode);
+        }
+    }
+
+    private Destination destination(int decodedOpCode, int address, int index) {
+        int parameterAddress = address + 1 + index;
+        int parameter = (int) program.valueAt(parameterAddress);
+        ParameterMode parameterMode = DecodedOpCode.parameterMode(decodedOpCode, index);
+        switch (parameterMode) {
+        case POSITION_MODE:
+        case IMMEDIATE_MODE:
+            return intCodeProgram -> parameter;
+        case RELATIVE_MODE:
+            return intCodeProgram -> intCodeProgram.relativeBase() + parameter;
+        default:
+            throw new IllegalArgumentException("unknown parameterMode: " + parameterMode);
+        }
+    }
+
+
+    @FunctionalInterface
+    interface CompiledInstruction {
+
+        /**
+         * @return {@code true}, if this instruction moved the instruction pointer itself
+         */
+        boolean execute(IntCodeProgram intCodeProgram);
+
+    }
+
+    @FunctionalInterface
+    private interface Operand {
+
+        long read(IntCodeProgram intCodeProgram);
+
+    }
+
+    @FunctionalInterface
+    private interface Destination {
+
+        int address(IntCodeProgram intCodeProgram);
+
+    }
+
+
+    static final class CompiledBlock {
+
+        private final CompiledInstruction[] instructions;
+        private final int[] nextAddresses;
+        private final boolean[] writesMemory;
+        private final boolean startsWithInput;
+
+
+        CompiledBlock(CompiledInstruction[] instructions, int[] nextAddresses, boolean[] writesMemory,
+                boolean startsWithInput) {
+            this.instructions = instructions;
+            this.nextAddresses = nextAddresses;
+            this.writesMemory = writesMemory;
+            this.startsWithInput = startsWithInput;
+        }
+
+
+        void execute(IntCodeProgram intCodeProgram, IntCodeCompiler compiler) {
+            for (int i = 0; i < instructions.length; i++) {
+                if (instructions[i].execute(intCodeProgram)) {
+                    return;
+                }
+                if (writesMemory[i] && compiler.isInvalidated()) {
+                    intCodeProgram.moveInstructionPointerTo(nextAddresses[i]);
+                    return;
+                }
+            }
+            intCodeProgram.moveInstructionPointerTo(nextAddresses[nextAddresses.length - 1]);
+        }
+
+        boolean startsWithInput() {
+            return startsWithInput;
+        }
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package de.adventofcode.chrisgw.intcode;
+
+/**
+ * Observes each instruction an {@link IntCodeProgram} interprets. While a listener is set, the program is always
+ * interpreted and never runs compiled code.
+ */
+public interface IntCodeExecutionListener {
+
+    void beforeInstruction(IntCodeProgram intCodeProgram, int instructionPointer, IntCodeIntstruction instruction);
+
+    void afterInstruction(IntCodeProgram intCodeProgram, int instructionPointer, IntCodeIntstruction instruction);
+
+    /**
+     * Called, when {@link IntCodeProgram#run()} stops, because the program waits for input.
+     */
+    void onInputWait(IntCodeProgram intCodeProgram);
+
+    /**
+     * Called before the program writes {@code newValue} to {@code address}.
+     */
+    default void onWrite(IntCodeProgram intCodeProgram, int address, long oldValue, long newValue) {
+    }
+
+}
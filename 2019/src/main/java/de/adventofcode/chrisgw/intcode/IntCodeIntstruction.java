@@ -20,6 +20,14 @@ public enum IntCodeIntstruction {
     ADJUST_RELATIVE_BASE(9, 2, IntCodeIntstruction::adjustRelativeBase), //
     EXIT(99, 0, IntCodeProgram::finish);
 
+    private static final IntCodeIntstruction[] INSTRUCTIONS_BY_OP_CODE = new IntCodeIntstruction[100];
+
+    static {
+        for (IntCodeIntstruction instruction : values()) {
+            INSTRUCTIONS_BY_OP_CODE[instruction.opCode] = instruction;
+        }
+    }
+
     private final int opCode;
     private final int instructionSize;
     private final Consumer<IntCodeProgram> execute;
@@ -32,6 +40,18 @@ public enum IntCodeIntstruction {
     }
 
 
+    public static IntCodeIntstruction forOpCode(int opCode) {
+        IntCodeIntstruction instruction = null;
+        if (opCode >= 0 && opCode < INSTRUCTIONS_BY_OP_CODE.length) {
+            instruction = INSTRUCTIONS_BY_OP_CODE[opCode];
+        }
+        if (instruction == null) {
+            throw new IllegalArgumentException("Unknown opCode: " + opCode);
+        }
+        return instruction;
+    }
+
+
     public int opCode() {
         return opCode;
     }
@@ -40,6 +60,10 @@ public enum IntCodeIntstruction {
         return instructionSize;
     }
 
+    public int parameterCount() {
+        return Math.max(instructionSize - 1, 0);
+    }
+
     public void execute(IntCodeProgram intCodeProgram) {
         execute.accept(intCodeProgram);
     }
@@ -0,0 +1,48 @@
+package de.adventofcode.chrisgw.intcode;
+
+/**
+ * Memory of an {@link IntCodeProgram}. Addresses are never negative, unwritten addresses read as {@code 0}.
+ */
+public interface IntCodeMemory {
+
+    long valueAt(int address);
+
+    void setValueAt(int address, long value);
+
+
+    /**
+     * @return number of addresses from {@code 0} up to the highest address backed by this memory
+     */
+    int size();
+
+    /**
+     * @return copy of all addresses up to {@link #size()}; sparse memories reject sizes, which are too large for a
+     * dense copy, prefer {@link #forEachPage(PageVisitor)} for those
+     */
+    long[] toArray();
+
+    /**
+     * Visits the regions backed by this memory in ascending address order, without copying them. Addresses, which
+     * are in no visited region, read as {@code 0}. The visited arrays must not be modified.
+     */
+    void forEachPage(PageVisitor pageVisitor);
+
+
+    /**
+     * Returns a copy of this memory, which shares its storage with this memory until either of both is written.
+     */
+    IntCodeMemory copyOnWrite();
+
+
+    @FunctionalInterface
+    interface PageVisitor {
+
+        /**
+         * @param startAddress address of {@code values[offset]}
+         * @param length       number of visited values, starting at {@code values[offset]}
+         */
+        void visitPage(int startAddress, long[] values, int offset, int length);
+
+    }
+
+}
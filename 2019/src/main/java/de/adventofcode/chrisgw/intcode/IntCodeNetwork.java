@@ -0,0 +1,140 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Network of {@link IntCodeProgram}s, which address each other by their index. Each computer boots with its address
+ * as first input and sends packets as three outputs: destination address, X and Y. A received packet is the two
+ * inputs X and Y; a computer waiting for input without any received packet gets {@value #NO_PACKET}.
+ * <p>
+ * The scheduler is cooperative and fair: each round runs every computer in address order until it waits for input
+ * again and routes all packets it sent in one batch afterwards.
+ */
+public class IntCodeNetwork {
+
+    public static final long NO_PACKET = -1;
+    private static final int PACKET_SIZE = 3;
+
+    private final List<IntCodeProgram> computers;
+    private final long[] outputBuffer = new long[PACKET_SIZE * 64];
+    private IntCodeNetworkNat nat;
+
+    private long rounds = 0;
+    private long routedPackets = 0;
+    private boolean stopped = false;
+
+
+    public IntCodeNetwork(IntCodeProgram nicProgram, int size) {
+        this.computers = new ArrayList<>(size);
+        for (int address = 0; address < size; address++) {
+            IntCodeProgram computer = new IntCodeProgram(nicProgram);
+            computer.addInput(address);
+            computers.add(computer);
+        }
+    }
+
+
+    public void setNat(IntCodeNetworkNat nat) {
+        this.nat = nat;
+    }
+
+
+    /**
+     * Runs rounds until {@link #stop()} is called, all computers exited, or the network is idle and the NAT doesn't
+     * want to continue.
+     */
+    public void run() {
+        stopped = false;
+        while (!stopped && !isFinished()) {
+            boolean idle = runRound();
+            if (idle && (nat == null || !nat.onIdle(this))) {
+                stopped = true;
+            }
+        }
+    }
+
+    /**
+     * Runs every computer once until it waits for input and routes all sent packets.
+     *
+     * @return {@code true}, if no computer received or sent any packet in this round
+     */
+    public boolean runRound() {
+        rounds++;
+        boolean idle = true;
+        for (IntCodeProgram computer : computers) {
+            if (computer.isFinished()) {
+                continue;
+            }
+            if (computer.hasNextInput()) {
+                idle = false;
+            } else if (computer.isWaitingForNextInput()) {
+                computer.addInput(NO_PACKET);
+            }
+            computer.run();
+            if (routeSentPackets(computer) > 0) {
+                idle = false;
+            }
+        }
+        return idle;
+    }
+
+    private int routeSentPackets(IntCodeProgram computer) {
+        int sentPackets = 0;
+        while (computer.outputCount() >= PACKET_SIZE) {
+            int packetOutputCount = computer.outputCount() / PACKET_SIZE * PACKET_SIZE;
+            int outputCount = computer.drainOutputs(outputBuffer, 0,
+                    Math.min(packetOutputCount, outputBuffer.length));
+            for (int i = 0; i < outputCount; i += PACKET_SIZE) {
+                sendPacket(new IntCodePacket((int) outputBuffer[i], outputBuffer[i + 1], outputBuffer[i + 2]));
+                sentPackets++;
+            }
+        }
+        return sentPackets;
+    }
+
+
+    /**
+     * Delivers the packet into the input queue of the addressed computer or to the NAT, if its address is outside of
+     * this network.
+     */
+    public void sendPacket(IntCodePacket packet) {
+        routedPackets++;
+        int address = packet.getAddress();
+        if (0 <= address && address < computers.size()) {
+            computers.get(address).addInputs(packet.getX(), packet.getY());
+        } else if (nat != null) {
+            nat.receive(this, packet);
+        } else {
+            throw new IllegalArgumentException("No computer with address " + address + " for: " + packet);
+        }
+    }
+
+
+    public void stop() {
+        this.stopped = true;
+    }
+
+    public boolean isFinished() {
+        return computers.stream().allMatch(IntCodeProgram::isFinished);
+    }
+
+
+    public IntCodeProgram computerAt(int address) {
+        return computers.get(address);
+    }
+
+    public int size() {
+        return computers.size();
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public long getRoutedPackets() {
+        return routedPackets;
+    }
+
+}
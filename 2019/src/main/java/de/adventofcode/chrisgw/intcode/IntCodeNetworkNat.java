@@ -0,0 +1,17 @@
+package de.adventofcode.chrisgw.intcode;
+
+/**
+ * Hook of an {@link IntCodeNetwork} for packets sent to addresses outside of the network and for idle rounds.
+ */
+public interface IntCodeNetworkNat {
+
+    void receive(IntCodeNetwork network, IntCodePacket packet);
+
+    /**
+     * Called after a round, in which every computer waited for input without receiving any packet.
+     *
+     * @return {@code true} to continue running the network, {@code false} to stop it
+     */
+    boolean onIdle(IntCodeNetwork network);
+
+}
@@ -0,0 +1,64 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.Objects;
+
+
+/**
+ * Packet sent by an {@link IntCodeProgram} in an {@link IntCodeNetwork} as the three outputs address, X and Y.
+ */
+public final class IntCodePacket {
+
+    private final int address;
+    private final long x;
+    private final long y;
+
+
+    public IntCodePacket(int address, long x, long y) {
+        this.address = address;
+        this.x = x;
+        this.y = y;
+    }
+
+
+    public IntCodePacket withAddress(int address) {
+        return new IntCodePacket(address, x, y);
+    }
+
+
+    public int getAddress() {
+        return address;
+    }
+
+    public long getX() {
+        return x;
+    }
+
+    public long getY() {
+        return y;
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IntCodePacket that = (IntCodePacket) o;
+        return address == that.address && x == that.x && y == that.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(address, x, y);
+    }
+
+
+    @Override
+    public String toString() {
+        return "IntCodePacket{address=" + address + ", x=" + x + ", y=" + y + "}";
+    }
+
+}
@@ -0,0 +1,135 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.*;
+import java.util.function.IntToLongFunction;
+import java.util.stream.Collectors;
+
+
+/**
+ * Immutable polynomial with {@code long} coefficients over variables, which are identified by the memory address
+ * they were read from. A monomial maps each of its variables to its exponent.
+ */
+public final class IntCodePolynomial {
+
+    private static final Map<Integer, Integer> CONSTANT_MONOMIAL = Collections.emptyMap();
+
+    private final Map<Map<Integer, Integer>, Long> terms;
+
+
+    private IntCodePolynomial(Map<Map<Integer, Integer>, Long> terms) {
+        this.terms = terms;
+    }
+
+    public static IntCodePolynomial constant(long value) {
+        if (value == 0) {
+            return new IntCodePolynomial(Collections.emptyMap());
+        }
+        return new IntCodePolynomial(Collections.singletonMap(CONSTANT_MONOMIAL, value));
+    }
+
+    public static IntCodePolynomial variable(int variable) {
+        Map<Integer, Integer> monomial = Collections.singletonMap(variable, 1);
+        return new IntCodePolynomial(Collections.singletonMap(monomial, 1L));
+    }
+
+
+    public IntCodePolynomial add(IntCodePolynomial other) {
+        Map<Map<Integer, Integer>, Long> sumTerms = new HashMap<>(terms);
+        other.terms.forEach((monomial, coefficient) -> sumTerms.merge(monomial, coefficient, Long::sum));
+        sumTerms.values().removeIf(coefficient -> coefficient == 0);
+        return new IntCodePolynomial(sumTerms);
+    }
+
+    public IntCodePolynomial multiply(IntCodePolynomial other) {
+        Map<Map<Integer, Integer>, Long> productTerms = new HashMap<>();
+        for (Map.Entry<Map<Integer, Integer>, Long> term : terms.entrySet()) {
+            for (Map.Entry<Map<Integer, Integer>, Long> otherTerm : other.terms.entrySet()) {
+                Map<Integer, Integer> monomial = new TreeMap<>(term.getKey());
+                otherTerm.getKey().forEach((variable, exponent) -> monomial.merge(variable, exponent, Integer::sum));
+                long coefficient = term.getValue() * otherTerm.getValue();
+                productTerms.merge(monomial, coefficient, Long::sum);
+            }
+        }
+        productTerms.values().removeIf(coefficient -> coefficient == 0);
+        return new IntCodePolynomial(productTerms);
+    }
+
+
+    public boolean isConstant() {
+        return terms.keySet().stream().allMatch(Map::isEmpty);
+    }
+
+    public long constantValue() {
+        return terms.getOrDefault(CONSTANT_MONOMIAL, 0L);
+    }
+
+    public int degreeIn(int variable) {
+        return terms.keySet().stream().mapToInt(monomial -> monomial.getOrDefault(variable, 0)).max().orElse(0);
+    }
+
+    public Set<Integer> variables() {
+        return terms.keySet().stream().flatMap(monomial -> monomial.keySet().stream()).collect(Collectors.toSet());
+    }
+
+
+    public long evaluate(IntToLongFunction variableValues) {
+        long value = 0;
+        for (Map.Entry<Map<Integer, Integer>, Long> term : terms.entrySet()) {
+            long termValue = term.getValue();
+            for (Map.Entry<Integer, Integer> variableExponent : term.getKey().entrySet()) {
+                long variableValue = variableValues.applyAsLong(variableExponent.getKey());
+                for (int i = 0; i < variableExponent.getValue(); i++) {
+                    termValue *= variableValue;
+                }
+            }
+            value += termValue;
+        }
+        return value;
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IntCodePolynomial that = (IntCodePolynomial) o;
+        return terms.equals(that.terms);
+    }
+
+    @Override
+    public int hashCode() {
+        return terms.hashCode();
+    }
+
+
+    @Override
+    public String toString() {
+        if (terms.isEmpty()) {
+            return "0";
+        }
+        return terms.entrySet()
+                .stream()
+                .sorted(Comparator.comparing((Map.Entry<Map<Integer, Integer>, Long> term) -> term.getKey().size())
+                        .reversed()
+                        .thenComparing(term -> term.getKey().toString()))
+                .map(term -> termStr(term.getKey(), term.getValue()))
+                .collect(Collectors.joining(" + "));
+    }
+
+    private static String termStr(Map<Integer, Integer> monomial, long coefficient) {
+        if (monomial.isEmpty()) {
+            return String.valueOf(coefficient);
+        }
+        String monomialStr = new TreeMap<>(monomial).entrySet()
+                .stream()
+                .map(variableExponent -> "x" + variableExponent.getKey() + (variableExponent.getValue() > 1 ?
+                        "^" + variableExponent.getValue() : ""))
+                .collect(Collectors.joining("*"));
+        return coefficient == 1 ? monomialStr : coefficient + "*" + monomialStr;
+    }
+
+}
@@ -0,0 +1,186 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * Counts executed instructions per {@link IntCodeIntstruction} and per address, taken and not taken jumps, input
+ * wait stalls and the peak memory size of the programs it is attached to with
+ * {@link IntCodeProgram#setExecutionListener(IntCodeExecutionListener)}.
+ */
+public class IntCodeProfiler implements IntCodeExecutionListener {
+
+    private static final IntCodeIntstruction[] INSTRUCTIONS = IntCodeIntstruction.values();
+
+    private final long[] instructionCounts = new long[INSTRUCTIONS.length];
+    private long[] addressCounts = new long[0];
+    private long[] jumpTakenCounts = new long[0];
+    private long[] jumpNotTakenCounts = new long[0];
+    private long executedInstructions = 0;
+    private long inputWaitStalls = 0;
+    private int peakMemorySize = 0;
+
+
+    @Override
+    public void beforeInstruction(IntCodeProgram intCodeProgram, int instructionPointer,
+            IntCodeIntstruction instruction) {
+        executedInstructions++;
+        instructionCounts[instruction.ordinal()]++;
+        ensureAddressCapacity(instructionPointer);
+        addressCounts[instructionPointer]++;
+    }
+
+    @Override
+    public void afterInstruction(IntCodeProgram intCodeProgram, int instructionPointer,
+            IntCodeIntstruction instruction) {
+        if (isJump(instruction)) {
+            int fallThroughAddress = instructionPointer + instruction.instructionSize();
+            if (intCodeProgram.getInstructionPointer() != fallThroughAddress) {
+                jumpTakenCounts[instructionPointer]++;
+            } else {
+                jumpNotTakenCounts[instructionPointer]++;
+            }
+        }
+        peakMemorySize = Math.max(peakMemorySize, intCodeProgram.memorySize());
+    }
+
+    @Override
+    public void onInputWait(IntCodeProgram intCodeProgram) {
+        inputWaitStalls++;
+    }
+
+
+    private static boolean isJump(IntCodeIntstruction instruction) {
+        return IntCodeIntstruction.JUMP_IF_TRUE.equals(instruction)
+                || IntCodeIntstruction.JUMP_IF_FALSE.equals(instruction);
+    }
+
+    private void ensureAddressCapacity(int address) {
+        if (address < addressCounts.length) {
+            return;
+        }
+        int newCapacity = Math.max(address + 1, addressCounts.length + (addressCounts.length >> 1));
+        addressCounts = Arrays.copyOf(addressCounts, newCapacity);
+        jumpTakenCounts = Arrays.copyOf(jumpTakenCounts, newCapacity);
+        jumpNotTakenCounts = Arrays.copyOf(jumpNotTakenCounts, newCapacity);
+    }
+
+
+    public void reset() {
+        Arrays.fill(instructionCounts, 0);
+        addressCounts = new long[0];
+        jumpTakenCounts = new long[0];
+        jumpNotTakenCounts = new long[0];
+        executedInstructions = 0;
+        inputWaitStalls = 0;
+        peakMemorySize = 0;
+    }
+
+
+    public long getExecutedInstructions() {
+        return executedInstructions;
+    }
+
+    public long instructionCount(IntCodeIntstruction instruction) {
+        return instructionCounts[instruction.ordinal()];
+    }
+
+    public long addressCount(int address) {
+        return address < addressCounts.length ? addressCounts[address] : 0;
+    }
+
+    /**
+     * @return up to {@code limit} executed addresses ordered by their execution count descending
+     */
+    public int[] hotAddresses(int limit) {
+        return executedAddresses().boxed()
+                .sorted(Comparator.comparingLong(this::addressCount).reversed())
+                .limit(limit)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    public long jumpTakenCount(int address) {
+        return address < jumpTakenCounts.length ? jumpTakenCounts[address] : 0;
+    }
+
+    public long jumpNotTakenCount(int address) {
+        return address < jumpNotTakenCounts.length ? jumpNotTakenCounts[address] : 0;
+    }
+
+    public double jumpTakenRatio(int address) {
+        long jumpCount = jumpTakenCount(address) + jumpNotTakenCount(address);
+        return jumpCount == 0 ? 0.0 : (double) jumpTakenCount(address) / jumpCount;
+    }
+
+    public long getInputWaitStalls() {
+        return inputWaitStalls;
+    }
+
+    public int getPeakMemorySize() {
+        return peakMemorySize;
+    }
+
+
+    private IntStream executedAddresses() {
+        return IntStream.range(0, addressCounts.length).filter(address -> addressCounts[address] > 0);
+    }
+
+    private IntStream jumpAddresses() {
+        return executedAddresses().filter(address -> jumpTakenCounts[address] + jumpNotTakenCounts[address] > 0);
+    }
+
+
+    /**
+     * @return all recorded counts as CSV with the columns {@code metric,key,value}
+     */
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder("metric,key,value\n");
+        sb.append("executedInstructions,,").append(executedInstructions).append('\n');
+        sb.append("inputWaitStalls,,").append(inputWaitStalls).append('\n');
+        sb.append("peakMemorySize,,").append(peakMemorySize).append('\n');
+        for (IntCodeIntstruction instruction : INSTRUCTIONS) {
+            sb.append("instruction,").append(instruction).append(',');
+            sb.append(instructionCount(instruction)).append('\n');
+        }
+        executedAddresses().forEach(address -> sb.append("address,")
+                .append(address)
+                .append(',')
+                .append(addressCount(address))
+                .append('\n'));
+        jumpAddresses().forEach(address -> {
+            sb.append("jumpTaken,").append(address).append(',').append(jumpTakenCount(address)).append('\n');
+            sb.append("jumpNotTaken,").append(address).append(',').append(jumpNotTakenCount(address)).append('\n');
+        });
+        return sb.toString();
+    }
+
+    public String toJson() {
+        String instructionCountsJson = Arrays.stream(INSTRUCTIONS)
+                .map(instruction -> "\"" + instruction + "\":" + instructionCount(instruction))
+                .collect(Collectors.joining(",", "{", "}"));
+        String addressCountsJson = executedAddresses().mapToObj(
+                address -> "\"" + address + "\":" + addressCount(address)).collect(Collectors.joining(",", "{", "}"));
+        String jumpsJson = jumpAddresses().mapToObj(
+                address -> "\"" + address + "\":{\"taken\":" + jumpTakenCount(address) + ",\"notTaken\":"
+                        + jumpNotTakenCount(address) + "}").collect(Collectors.joining(",", "{", "}"));
+        return "{\"executedInstructions\":" + executedInstructions //
+                + ",\"inputWaitStalls\":" + inputWaitStalls //
+                + ",\"peakMemorySize\":" + peakMemorySize //
+                + ",\"instructionCounts\":" + instructionCountsJson //
+                + ",\"addressCounts\":" + addressCountsJson //
+                + ",\"jumps\":" + jumpsJson + "}";
+    }
+
+
+    @Override
+    public String toString() {
+        return "IntCodeProfiler{executedInstructions=" + executedInstructions + ", inputWaitStalls="
+                + inputWaitStalls + ", peakMemorySize=" + peakMemorySize + ", hotAddresses="
+                + Arrays.toString(hotAddresses(10)) + "}";
+    }
+
+}
@@ -1,24 +1,34 @@
 package de.adventofcode.chrisgw.intcode;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.function.Function;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 
 
 public class IntCodeProgram implements Iterator<IntCodeIntstruction> {
 
+    private static final int OP_CODE_COUNT = 100;
+
     private final long[] initialState;
-    private final Map<Integer, IntCodeIntstruction> instructionSet;
+    private final IntCodeIntstruction[] instructionTable;
+    private final Function<long[], IntCodeMemory> memoryFactory;
+    private final long[] decodedOpCodeWords;
+    private final int[] decodedOpCodes;
 
-    private Deque<Long> inputs = new ArrayDeque<>();
-    private Deque<Long> outputs = new ArrayDeque<>();
+    private final LongRingBuffer inputs = new LongRingBuffer();
+    private final LongRingBuffer outputs = new LongRingBuffer();
 
     private boolean finished = false;
     private int instructionPointer;
     private int relativeBase = 0;
-    private long[] memory;
+    private IntCodeMemory memory;
+
+    private boolean compilationEnabled = false;
+    private IntCodeCompiler compiler;
+    private IntCodeExecutionListener executionListener;
 
 
     public IntCodeProgram(long[] initialState) {
@@ -26,14 +36,36 @@ public class IntCodeProgram implements Iterator<IntCodeIntstruction> {
     }
 
     public IntCodeProgram(long[] initialState, Collection<IntCodeIntstruction> instructionSet) {
+        this(initialState, instructionSet, PagedIntCodeMemory::new);
+    }
+
+    public IntCodeProgram(long[] initialState, Collection<IntCodeIntstruction> instructionSet,
+            Function<long[], IntCodeMemory> memoryFactory) {
         this.initialState = Arrays.copyOf(initialState, initialState.length);
-        this.instructionSet = instructionSet.stream()
-                .collect(Collectors.toMap(IntCodeIntstruction::opCode, Function.identity()));
+        this.memoryFactory = memoryFactory;
+        this.instructionTable = new IntCodeIntstruction[OP_CODE_COUNT];
+        this.instructionTable[IntCodeIntstruction.EXIT.opCode()] = IntCodeIntstruction.EXIT;
+        instructionSet.forEach(instruction -> instructionTable[instruction.opCode()] = instruction);
+        this.decodedOpCodeWords = new long[initialState.length];
+        this.decodedOpCodes = new int[initialState.length];
         reset();
     }
 
+    private IntCodeProgram(IntCodeProgram intCodeProgram, IntCodeSnapshot snapshot) {
+        this.initialState = intCodeProgram.initialState;
+        this.instructionTable = intCodeProgram.instructionTable;
+        this.memoryFactory = intCodeProgram.memoryFactory;
+        this.decodedOpCodeWords = new long[initialState.length];
+        this.decodedOpCodes = new int[initialState.length];
+        this.compilationEnabled = intCodeProgram.compilationEnabled;
+        restore(snapshot);
+    }
+
     public IntCodeProgram(IntCodeProgram intCodeProgram) {
-        this(intCodeProgram.initialState, intCodeProgram.instructionSet.values()); // day 07
+        this(intCodeProgram.initialState, intCodeProgram.instructionSet(), intCodeProgram.memoryFactory); // day 07
+        if (intCodeProgram.compilationEnabled) {
+            enableCompilation();
+        }
     }
 
     public static IntCodeProgram parseIntCodeProgram(String intCodeProgramStr) {
@@ -44,12 +76,50 @@ public class IntCodeProgram implements Iterator<IntCodeIntstruction> {
 
 
     public void reset() {
-        this.memory = Arrays.copyOf(initialState, initialState.length);
+        this.memory = memoryFactory.apply(initialState);
         this.instructionPointer = 0;
         this.relativeBase = 0;
         this.inputs.clear();
         this.outputs.clear();
         this.finished = false;
+        resetCompiler();
+    }
+
+
+    public IntCodeSnapshot snapshot() {
+        long[] inputValues = inputs.toArray();
+        long[] outputValues = outputs.toArray();
+        return new IntCodeSnapshot(memory.copyOnWrite(), instructionPointer, relativeBase, finished, inputValues,
+                outputValues);
+    }
+
+    public void restore(IntCodeSnapshot snapshot) {
+        this.memory = snapshot.memory().copyOnWrite();
+        this.instructionPointer = snapshot.getInstructionPointer();
+        this.relativeBase = snapshot.getRelativeBase();
+        this.finished = snapshot.isFinished();
+        this.inputs.clear();
+        this.inputs.addAll(snapshot.inputs());
+        this.outputs.clear();
+        this.outputs.addAll(snapshot.outputs());
+        resetCompiler();
+    }
+
+    public IntCodeProgram fork() {
+        return new IntCodeProgram(this, snapshot());
+    }
+
+
+    /**
+     * Writes the current state together with the initial state into a binary checkpoint file, which
+     * {@link #readCheckpoint(Path)} restores with the default instruction set and memory.
+     */
+    public void writeCheckpoint(Path checkpointFile) throws IOException {
+        IntCodeCheckpoint.write(this, checkpointFile);
+    }
+
+    public static IntCodeProgram readCheckpoint(Path checkpointFile) throws IOException {
+        return IntCodeCheckpoint.read(checkpointFile);
     }
 
 
@@ -69,32 +139,112 @@ public class IntCodeProgram implements Iterator<IntCodeIntstruction> {
         }
         int currentInstructionPointer = instructionPointer;
         IntCodeIntstruction intCodeInstruction = nextInstruction();
+        IntCodeExecutionListener executionListener = this.executionListener;
+        if (executionListener != null) {
+            executionListener.beforeInstruction(this, currentInstructionPointer, intCodeInstruction);
+        }
         intCodeInstruction.execute(this);
         if (currentInstructionPointer == instructionPointer) {
             instructionPointer += intCodeInstruction.instructionSize();
         }
+        if (executionListener != null) {
+            executionListener.afterInstruction(this, currentInstructionPointer, intCodeInstruction);
+        }
         return intCodeInstruction;
     }
 
+    IntCodeIntstruction instructionFor(int opCode) {
+        return instructionTable[opCode];
+    }
+
+    int decode(long opCodeWord) {
+        IntCodeIntstruction instruction = instructionTable[DecodedOpCode.opCodeOf(opCodeWord)];
+        return DecodedOpCode.decode(opCodeWord, instruction == null ? 0 : instruction.parameterCount());
+    }
+
     private IntCodeIntstruction nextInstruction() {
-        int opCode = nextOpCode();
-        int code = opCode % 100;
-        IntCodeIntstruction intCodeInstruction = instructionSet.get(code);
-        if (code != 99 && intCodeInstruction == null) {
+        int code = DecodedOpCode.opCode(nextDecodedOpCode());
+        IntCodeIntstruction intCodeInstruction = instructionTable[code];
+        if (intCodeInstruction == null) {
             throw new IllegalArgumentException("Unknown opCode: " + code);
         }
         return intCodeInstruction;
     }
 
-    private int nextOpCode() {
-        return (int) valueAt(instructionPointer);
+    private int nextDecodedOpCode() {
+        int address = instructionPointer;
+        if (address < 0 || address >= decodedOpCodes.length) {
+            return decode(valueAt(address));
+        }
+        long opCodeWord = memory.valueAt(address);
+        int decodedOpCode = decodedOpCodes[address];
+        if (decodedOpCode == DecodedOpCode.UNDECODED || decodedOpCodeWords[address] != opCodeWord) {
+            decodedOpCode = decode(opCodeWord);
+            decodedOpCodeWords[address] = opCodeWord;
+            decodedOpCodes[address] = decodedOpCode;
+        }
+        return decodedOpCode;
     }
 
 
     public void run() {
+        if (compiler != null && executionListener == null) {
+            runCompiled();
+        }
         while (hasNext()) {
             next();
         }
+        if (executionListener != null && !finished) {
+            executionListener.onInputWait(this);
+        }
+    }
+
+    private void runCompiled() {
+        IntCodeCompiler compiler = this.compiler;
+        while (!finished && !compiler.isInvalidated()) {
+            IntCodeCompiler.CompiledBlock block = compiler.blockAt(instructionPointer);
+            if (block == null) {
+                if (!hasNext()) {
+                    return;
+                }
+                next();
+            } else if (block.startsWithInput() && !hasNextInput()) {
+                return;
+            } else {
+                block.execute(this, compiler);
+            }
+        }
+    }
+
+
+    /**
+     * Compiles the basic blocks of this program on first execution, so {@link #run()} executes them with
+     * pre-resolved parameters. As soon as this program writes into compiled code, it falls back to interpreting
+     * until the next {@link #reset()} or {@link #restore(IntCodeSnapshot)}.
+     */
+    public void enableCompilation() {
+        this.compilationEnabled = true;
+        resetCompiler();
+    }
+
+    public boolean isCompiled() {
+        return compiler != null;
+    }
+
+    /**
+     * @param executionListener listener to notify about every interpreted instruction or {@code null} to disable
+     *                          instrumentation again
+     */
+    public void setExecutionListener(IntCodeExecutionListener executionListener) {
+        this.executionListener = executionListener;
+    }
+
+    public IntCodeExecutionListener getExecutionListener() {
+        return executionListener;
+    }
+
+    private void resetCompiler() {
+        this.compiler = compilationEnabled ? new IntCodeCompiler(this, initialState.length) : null;
     }
 
 
@@ -132,13 +282,7 @@ public class IntCodeProgram implements Iterator<IntCodeIntstruction> {
     }
 
     private ParameterMode parameterModeAt(int index) {
-        String opCodeStr = String.valueOf(nextOpCode());
-        int parameterModeIndex = opCodeStr.length() - 1 - 2 - index;
-        if (parameterModeIndex < 0 || parameterModeIndex >= opCodeStr.length()) {
-            return ParameterMode.POSITION_MODE;
-        }
-        int parameterModeCode = opCodeStr.charAt(parameterModeIndex) - '0';
-        return ParameterMode.forCode(parameterModeCode);
+        return DecodedOpCode.parameterMode(nextDecodedOpCode(), index);
     }
 
 
@@ -149,31 +293,28 @@ public class IntCodeProgram implements Iterator<IntCodeIntstruction> {
     public long valueAt(int address) {
         if (address < 0) {
             throw new IllegalArgumentException("Can't access negative addresses, but was: " + address);
-        } else if (address >= memory.length) {
-            return 0;
-        } else {
-            return memory[address];
         }
+        return memory.valueAt(address);
     }
 
     public void setValueAt(int address, long value) {
         if (address < 0) {
             throw new IllegalArgumentException("Can't write negative addresses, but was: " + address);
-        } else if (address >= memory.length) {
-            growMemoryToAdress(address);
         }
-        memory[address] = value;
+        if (executionListener != null) {
+            executionListener.onWrite(this, address, memory.valueAt(address), value);
+        }
+        memory.setValueAt(address, value);
+        if (compiler != null && compiler.isCode(address)) {
+            compiler.invalidate();
+            compiler = null;
+        }
     }
 
-    private void growMemoryToAdress(int address) {
-        int oldCapacity = memory.length;
-        int minCapacity = address + 1;
-        int grow = Math.max(minCapacity - oldCapacity, /* minimum growth */
-                oldCapacity >> 1 /* preferred growth */);
-        int newCapacity = oldCapacity + grow;
-        memory = Arrays.copyOf(memory, newCapacity);
-    }
 
+    public int getInstructionPointer() {
+        return instructionPointer;
+    }
 
     public void moveInstructionPointerTo(int instructionPointerDestination) {
         this.instructionPointer = instructionPointerDestination;
@@ -184,6 +325,10 @@ public class IntCodeProgram implements Iterator<IntCodeIntstruction> {
         relativeBase += parameterValue;
     }
 
+    int relativeBase() {
+        return relativeBase;
+    }
+
 
     public void finish() {
         this.finished = true;
@@ -211,6 +356,14 @@ public class IntCodeProgram implements Iterator<IntCodeIntstruction> {
         inputs.addLast(input);
     }
 
+    public void addInputs(long... inputs) {
+        this.inputs.addAll(inputs);
+    }
+
+    public void addInputs(long[] inputs, int offset, int length) {
+        this.inputs.addAll(inputs, offset, length);
+    }
+
     public boolean hasNextInput() {
         return !inputs.isEmpty();
     }
@@ -229,26 +382,79 @@ public class IntCodeProgram implements Iterator<IntCodeIntstruction> {
     }
 
     public LongStream getAllOutput() {
-        return LongStream.generate(this::nextOutput).limit(outputs.size());
+        long[] allOutput = new long[outputs.size()];
+        outputs.drainTo(allOutput);
+        return LongStream.of(allOutput);
+    }
+
+    /**
+     * Removes up to {@code dst.length} pending outputs into {@code dst} without boxing them.
+     *
+     * @return number of outputs written into {@code dst}
+     */
+    public int drainOutputs(long[] dst) {
+        return outputs.drainTo(dst);
+    }
+
+    public int drainOutputs(long[] dst, int offset, int length) {
+        return outputs.drainTo(dst, offset, length);
     }
 
     public boolean hasNextOutput() {
         return !outputs.isEmpty();
     }
 
+    public int outputCount() {
+        return outputs.size();
+    }
+
+
+    private List<IntCodeIntstruction> instructionSet() {
+        List<IntCodeIntstruction> instructionSet = new ArrayList<>();
+        for (IntCodeIntstruction instruction : instructionTable) {
+            if (instruction != null) {
+                instructionSet.add(instruction);
+            }
+        }
+        return instructionSet;
+    }
+
 
     public long[] getInitialState() {
         return Arrays.copyOf(initialState, initialState.length);
     }
 
     public long[] getMemory() {
-        return Arrays.copyOf(memory, memory.length);
+        return memory.toArray();
+    }
+
+    public int memorySize() {
+        return memory.size();
+    }
+
+    IntCodeMemory memory() {
+        return memory;
+    }
+
+    long[] pendingInputs() {
+        return inputs.toArray();
+    }
+
+    long[] pendingOutputs() {
+        return outputs.toArray();
     }
 
 
     @Override
     public String toString() {
-        return Arrays.toString(memory);
+        StringBuilder sb = new StringBuilder();
+        memory.forEachPage((startAddress, values, offset, length) -> {
+            if (startAddress > 0) {
+                sb.append(", ").append(startAddress).append(": ");
+            }
+            sb.append(Arrays.toString(Arrays.copyOfRange(values, offset, offset + length)));
+        });
+        return sb.toString();
     }
 
 }
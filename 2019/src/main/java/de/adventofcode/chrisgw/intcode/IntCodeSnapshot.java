@@ -0,0 +1,65 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.Arrays;
+
+
+/**
+ * Captured state of an {@link IntCodeProgram}. The memory is shared copy-on-write with the program it was
+ * taken from and with every program restored from it, so neither taking nor restoring a snapshot copies the
+ * memory.
+ */
+public final class IntCodeSnapshot {
+
+    private final IntCodeMemory memory;
+    private final int instructionPointer;
+    private final int relativeBase;
+    private final boolean finished;
+    private final long[] inputs;
+    private final long[] outputs;
+
+
+    IntCodeSnapshot(IntCodeMemory memory, int instructionPointer, int relativeBase, boolean finished, long[] inputs,
+            long[] outputs) {
+        this.memory = memory;
+        this.instructionPointer = instructionPointer;
+        this.relativeBase = relativeBase;
+        this.finished = finished;
+        this.inputs = inputs;
+        this.outputs = outputs;
+    }
+
+
+    IntCodeMemory memory() {
+        return memory;
+    }
+
+    long[] inputs() {
+        return inputs;
+    }
+
+    long[] outputs() {
+        return outputs;
+    }
+
+
+    public int getInstructionPointer() {
+        return instructionPointer;
+    }
+
+    public int getRelativeBase() {
+        return relativeBase;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+
+    @Override
+    public String toString() {
+        return "IntCodeSnapshot{instructionPointer=" + instructionPointer + ", relativeBase=" + relativeBase
+                + ", finished=" + finished + ", inputs=" + Arrays.toString(inputs) + ", outputs="
+                + Arrays.toString(outputs) + "}";
+    }
+
+}
@@ -0,0 +1,238 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.*;
+
+
+/**
+ * Executes an Intcode program once with some memory addresses treated as variables. Every memory value is kept as
+ * {@link IntCodePolynomial} over these variables, so {@code ADD} and {@code MULITPLY} propagate them symbolically.
+ * Values read through a symbolic address are unknown. Evaluation stops and reports the control flow as symbolic,
+ * as soon as an opCode, a jump, a comparison, a relative base adjustment or a write address depends on a
+ * variable or an unknown value.
+ */
+public class IntCodeSymbolicEvaluator {
+
+    private static final long MAX_EXECUTED_INSTRUCTIONS = 1_000_000;
+    private static final IntCodePolynomial ZERO = IntCodePolynomial.constant(0);
+
+    private final long[] initialState;
+    private final Set<Integer> variableAddresses = new TreeSet<>();
+
+    private IntCodePolynomial[] memory;
+    private final List<IntCodePolynomial> outputs = new ArrayList<>();
+    private int instructionPointer;
+    private long relativeBase;
+    private boolean finished;
+    private String symbolicControlFlowReason;
+
+
+    public IntCodeSymbolicEvaluator(long[] initialState) {
+        this.initialState = Arrays.copyOf(initialState, initialState.length);
+    }
+
+
+    public IntCodeSymbolicEvaluator withVariable(int address) {
+        variableAddresses.add(address);
+        return this;
+    }
+
+
+    public void run() {
+        memory = new IntCodePolynomial[initialState.length];
+        for (int address = 0; address < initialState.length; address++) {
+            memory[address] = IntCodePolynomial.constant(initialState[address]);
+        }
+        variableAddresses.forEach(address -> writeValueAt(address, IntCodePolynomial.variable(address)));
+        outputs.clear();
+        instructionPointer = 0;
+        relativeBase = 0;
+        finished = false;
+        symbolicControlFlowReason = null;
+
+        for (long executed = 0; !finished && symbolicControlFlowReason == null; executed++) {
+            if (executed >= MAX_EXECUTED_INSTRUCTIONS) {
+                symbolicControlFlowReason = "exceeded " + MAX_EXECUTED_INSTRUCTIONS + " executed instructions";
+                return;
+            }
+            step();
+        }
+    }
+
+    private void step() {
+        IntCodePolynomial opCodeWord = readValueAt(instructionPointer);
+        if (!isConstant(opCodeWord)) {
+            symbolicControlFlow("opCode at " + instructionPointer + " is " + opCodeWord);
+            return;
+        }
+        long constantOpCodeWord = opCodeWord.constantValue();
+        IntCodeIntstruction instruction = IntCodeIntstruction.forOpCode(DecodedOpCode.opCodeOf(constantOpCodeWord));
+        int decodedOpCode = DecodedOpCode.decode(constantOpCodeWord, instruction.parameterCount());
+        int nextInstructionPointer = instructionPointer + instruction.instructionSize();
+
+        switch (instruction) {
+        case ADD:
+        case MULITPLY: {
+            IntCodePolynomial firstValue = parameterAt(decodedOpCode, 0);
+            IntCodePolynomial secondValue = parameterAt(decodedOpCode, 1);
+            IntCodePolynomial result = null;
+            if (firstValue != null && secondValue != null) {
+                boolean isAdd = IntCodeIntstruction.ADD.equals(instruction);
+                result = isAdd ? firstValue.add(secondValue) : firstValue.multiply(secondValue);
+            }
+            writeParameterAt(decodedOpCode, 2, result);
+            break;
+        }
+        case LESS_THAN:
+        case EQUALS: {
+            IntCodePolynomial firstValue = parameterAt(decodedOpCode, 0);
+            IntCodePolynomial secondValue = parameterAt(decodedOpCode, 1);
+            if (!isConstant(firstValue) || !isConstant(secondValue)) {
+                symbolicControlFlow(instruction + " at " + instructionPointer + " compares " + firstValue + " with "
+                        + secondValue);
+                return;
+            }
+            boolean isLessThan = IntCodeIntstruction.LESS_THAN.equals(instruction);
+            boolean comparison = isLessThan ? firstValue.constantValue() < secondValue.constantValue()
+                    : firstValue.constantValue() == secondValue.constantValue();
+            writeParameterAt(decodedOpCode, 2, IntCodePolynomial.constant(comparison ? 1 : 0));
+            break;
+        }
+        case JUMP_IF_TRUE:
+        case JUMP_IF_FALSE: {
+            IntCodePolynomial testValue = parameterAt(decodedOpCode, 0);
+            IntCodePolynomial jumpDestination = parameterAt(decodedOpCode, 1);
+            if (!isConstant(testValue) || !isConstant(jumpDestination)) {
+                symbolicControlFlow(instruction + " at " + instructionPointer + " tests " + testValue
+                        + " to jump to " + jumpDestination);
+                return;
+            }
+            boolean jumpIfTrue = IntCodeIntstruction.JUMP_IF_TRUE.equals(instruction);
+            if ((testValue.constantValue() != 0) == jumpIfTrue) {
+                nextInstructionPointer = (int) jumpDestination.constantValue();
+            }
+            break;
+        }
+        case ADJUST_RELATIVE_BASE: {
+            IntCodePolynomial parameterValue = parameterAt(decodedOpCode, 0);
+            if (!isConstant(parameterValue)) {
+                symbolicControlFlow("relative base adjusted by " + parameterValue + " at " + instructionPointer);
+                return;
+            }
+            relativeBase += parameterValue.constantValue();
+            break;
+        }
+        case OUTPUT:
+            outputs.add(parameterAt(decodedOpCode, 0));
+            break;
+        case INPUT:
+            symbolicControlFlow("symbolic evaluation doesn't support INPUT at " + instructionPointer);
+            return;
+        case EXIT:
+            finished = true;
+            return;
+        default:
+            throw new IllegalArgumentException("Unknown instruction: " + instruction);
+        }
+        if (symbolicControlFlowReason == null) {
+            instructionPointer = nextInstructionPointer;
+        }
+    }
+
+
+    private static boolean isConstant(IntCodePolynomial value) {
+        return value != null && value.isConstant();
+    }
+
+    private void symbolicControlFlow(String reason) {
+        this.symbolicControlFlowReason = reason;
+    }
+
+
+    /**
+     * @return value of the parameter or {@code null}, if it was read through a symbolic address
+     */
+    private IntCodePolynomial parameterAt(int decodedOpCode, int index) {
+        IntCodePolynomial parameter = readValueAt(instructionPointer + 1 + index);
+        ParameterMode parameterMode = DecodedOpCode.parameterMode(decodedOpCode, index);
+        switch (parameterMode) {
+        case IMMEDIATE_MODE:
+            return parameter;
+        case POSITION_MODE:
+            return isConstant(parameter) ? readValueAt(parameter.constantValue()) : null;
+        case RELATIVE_MODE:
+            return isConstant(parameter) ? readValueAt(relativeBase + parameter.constantValue()) : null;
+        default:
+            throw new IllegalArgumentException("unknown parameterMode: " + parameterMode);
+        }
+    }
+
+    private void writeParameterAt(int decodedOpCode, int index, IntCodePolynomial value) {
+        IntCodePolynomial parameter = readValueAt(instructionPointer + 1 + index);
+        if (!isConstant(parameter)) {
+            symbolicControlFlow("write address at " + instructionPointer + " is " + parameter);
+            return;
+        }
+        ParameterMode parameterMode = DecodedOpCode.parameterMode(decodedOpCode, index);
+        long address = parameter.constantValue();
+        if (ParameterMode.RELATIVE_MODE.equals(parameterMode)) {
+            address += relativeBase;
+        }
+        writeValueAt(address, value);
+    }
+
+
+    private IntCodePolynomial readValueAt(long address) {
+        if (address < 0) {
+            throw new IllegalArgumentException("Can't access negative addresses, but was: " + address);
+        } else if (address >= memory.length) {
+            return ZERO;
+        }
+        return memory[(int) address];
+    }
+
+    private void writeValueAt(long address, IntCodePolynomial value) {
+        if (address < 0) {
+            throw new IllegalArgumentException("Can't write negative addresses, but was: " + address);
+        } else if (address >= memory.length) {
+            int oldLength = memory.length;
+            memory = Arrays.copyOf(memory, (int) Math.max(address + 1, oldLength + (oldLength >> 1)));
+            Arrays.fill(memory, oldLength, memory.length, ZERO);
+        }
+        memory[(int) address] = value;
+    }
+
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isControlFlowSymbolic() {
+        return symbolicControlFlowReason != null;
+    }
+
+    public String getSymbolicControlFlowReason() {
+        return symbolicControlFlowReason;
+    }
+
+
+    public boolean isKnownAt(int address) {
+        return readValueAt(address) != null;
+    }
+
+    /**
+     * @return polynomial over the variable addresses for the value at given address
+     * @throws IllegalStateException if the value was derived from a read through a symbolic address
+     */
+    public IntCodePolynomial valueAt(int address) {
+        IntCodePolynomial value = readValueAt(address);
+        if (value == null) {
+            throw new IllegalStateException("Value at " + address + " depends on a symbolic address");
+        }
+        return value;
+    }
+
+    public List<IntCodePolynomial> getOutputs() {
+        return Collections.unmodifiableList(outputs);
+    }
+
+}
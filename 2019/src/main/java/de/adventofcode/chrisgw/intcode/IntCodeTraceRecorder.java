@@ -0,0 +1,182 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Records the execution of the programs it is attached to with
+ * {@link IntCodeProgram#setExecutionListener(IntCodeExecutionListener)} into an append-only trace file, which
+ * {@link IntCodeTraceReplayer} replays without executing the program again.
+ * <p>
+ * The file starts with the byte length of all records, which is written by {@link #close()}, and the memory at the
+ * first recorded event, stored like in {@link IntCodeCheckpoint} as the
+ * initial state and the runs of addresses changed since then, followed by one record per event: an instruction is
+ * its op code and the delta to the previous instruction pointer, a write is {@link #WRITE_TAG}, the delta to the
+ * previous written address and the delta to the overwritten value. All deltas are zigzag encoded variable length
+ * integers, which are written into a preallocated memory mapped segment of the file.
+ */
+public class IntCodeTraceRecorder implements IntCodeExecutionListener, Closeable {
+
+    static final int MAGIC = 0x49435452; // ICTR
+    static final byte WRITE_TAG = 0;
+    static final long UNCLOSED_RECORDS_LENGTH = -1;
+    private static final int RECORDS_LENGTH_POSITION = Integer.BYTES;
+
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 24;
+    private static final int MAX_RECORD_SIZE = 1 + 5 + 10;
+
+    private final FileChannel channel;
+    private final int segmentSize;
+    private MappedByteBuffer segment;
+    private long segmentOffset;
+    private long recordsOffset;
+
+    private int previousInstructionPointer = 0;
+    private int previousWriteAddress = 0;
+    private long recordedInstructions = 0;
+    private long recordedWrites = 0;
+
+
+    public IntCodeTraceRecorder(Path traceFile) throws IOException {
+        this(traceFile, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public IntCodeTraceRecorder(Path traceFile, int segmentSize) throws IOException {
+        if (segmentSize < MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be at least " + MAX_RECORD_SIZE);
+        }
+        this.segmentSize = segmentSize;
+        this.channel = FileChannel.open(traceFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+
+    @Override
+    public void beforeInstruction(IntCodeProgram intCodeProgram, int instructionPointer,
+            IntCodeIntstruction instruction) {
+        ensureRecordCapacity(intCodeProgram);
+        segment.put((byte) instruction.opCode());
+        putZigZag(instructionPointer - previousInstructionPointer);
+        previousInstructionPointer = instructionPointer;
+        recordedInstructions++;
+    }
+
+    @Override
+    public void afterInstruction(IntCodeProgram intCodeProgram, int instructionPointer,
+            IntCodeIntstruction instruction) {
+        // writes are recorded, while the instruction executes
+    }
+
+    @Override
+    public void onInputWait(IntCodeProgram intCodeProgram) {
+        // waiting changes no state
+    }
+
+    @Override
+    public void onWrite(IntCodeProgram intCodeProgram, int address, long oldValue, long newValue) {
+        ensureRecordCapacity(intCodeProgram);
+        segment.put(WRITE_TAG);
+        putZigZag(address - previousWriteAddress);
+        putZigZag(newValue - oldValue);
+        previousWriteAddress = address;
+        recordedWrites++;
+    }
+
+
+    private void ensureRecordCapacity(IntCodeProgram intCodeProgram) {
+        try {
+            if (segment == null) {
+                writeHeader(intCodeProgram.getInitialState(), intCodeProgram.memory());
+            } else if (segment.remaining() < MAX_RECORD_SIZE) {
+                mapSegment(segmentOffset + segment.position());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't extend trace file", e);
+        }
+    }
+
+    private void writeHeader(long[] initialState, IntCodeMemory memory) throws IOException {
+        int[] runStatistics = new int[2]; // runCount, runValueCount
+        IntCodeCheckpoint.forEachChangedRun(memory, initialState, (address, values, offset, length) -> {
+            runStatistics[0]++;
+            runStatistics[1] += length;
+        });
+
+        ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES + 2 * Integer.BYTES * runStatistics[0]
+                + Long.BYTES * (1 + initialState.length + runStatistics[1]));
+        header.putInt(MAGIC).putLong(UNCLOSED_RECORDS_LENGTH).putInt(memory.size());
+        header.putInt(initialState.length);
+        header.asLongBuffer().put(initialState);
+        header.position(header.position() + Long.BYTES * initialState.length);
+        header.putInt(runStatistics[0]);
+        IntCodeCheckpoint.forEachChangedRun(memory, initialState, (address, values, offset, length) -> {
+            header.putInt(address).putInt(length);
+            header.asLongBuffer().put(values, offset, length);
+            header.position(header.position() + Long.BYTES * length);
+        });
+        header.flip();
+
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+        recordsOffset = position;
+        mapSegment(position);
+    }
+
+    private void mapSegment(long offset) throws IOException {
+        segmentOffset = offset;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, offset, segmentSize);
+    }
+
+    private void putZigZag(long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            segment.put((byte) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        segment.put((byte) zigZag);
+    }
+
+
+    public long getRecordedInstructions() {
+        return recordedInstructions;
+    }
+
+    public long getRecordedWrites() {
+        return recordedWrites;
+    }
+
+
+    /**
+     * Flushes the trace and cuts the file after the last record.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            if (segment == null) {
+                writeHeader(new long[0], new PagedIntCodeMemory(new long[0]));
+            }
+            segment.force();
+            long recordsEnd = segmentOffset + segment.position();
+            channel.truncate(recordsEnd);
+            ByteBuffer recordsLength = ByteBuffer.allocate(Long.BYTES).putLong(0, recordsEnd - recordsOffset);
+            long position = RECORDS_LENGTH_POSITION;
+            while (recordsLength.hasRemaining()) {
+                position += channel.write(recordsLength, position);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Replays a trace file of an {@link IntCodeTraceRecorder} instruction by instruction. After each
+ * {@link #nextInstruction()} the memory is the memory of the recorded program after that instruction.
+ */
+public class IntCodeTraceReplayer {
+
+    private final ByteBuffer trace;
+    private final IntCodeMemory memory;
+
+    private int instructionPointer = 0;
+    private int opCode = 0;
+    private int previousWriteAddress = 0;
+    private long replayedInstructions = 0;
+
+
+    public IntCodeTraceReplayer(Path traceFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(traceFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Trace file too large to replay: " + traceFile);
+            }
+            this.trace = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (trace.remaining() < Integer.BYTES + Long.BYTES || trace.getInt() != IntCodeTraceRecorder.MAGIC) {
+            throw new IOException("No IntCode trace: " + traceFile);
+        }
+        long recordsLength = trace.getLong();
+        if (recordsLength == IntCodeTraceRecorder.UNCLOSED_RECORDS_LENGTH) {
+            throw new IOException("Incomplete IntCode trace, its recorder wasn't closed: " + traceFile);
+        }
+        this.memory = readMemory(trace);
+        if (recordsLength > trace.remaining()) {
+            throw new IOException("Truncated IntCode trace: " + traceFile);
+        }
+        trace.limit(trace.position() + (int) recordsLength); // ignores anything behind the last record
+        replayWrites(); // writes before the first instruction, like setting noun and verb
+    }
+
+
+    private static IntCodeMemory readMemory(ByteBuffer trace) {
+        int memorySize = trace.getInt();
+        long[] initialState = new long[trace.getInt()];
+        trace.asLongBuffer().get(initialState);
+        trace.position(trace.position() + Long.BYTES * initialState.length);
+
+        IntCodeMemory memory = new PagedIntCodeMemory(initialState);
+        if (memorySize > 0) { // keeps the memory size, even if its highest addresses are unchanged
+            memory.setValueAt(memorySize - 1, memory.valueAt(memorySize - 1));
+        }
+        int runCount = trace.getInt();
+        for (int run = 0; run < runCount; run++) {
+            int address = trace.getInt();
+            int length = trace.getInt();
+            for (int i = 0; i < length; i++) {
+                memory.setValueAt(address + i, trace.getLong());
+            }
+        }
+        return memory;
+    }
+
+
+    public boolean hasNextInstruction() {
+        return trace.hasRemaining();
+    }
+
+    /**
+     * Replays the next recorded instruction and all its memory writes.
+     *
+     * @return instruction pointer of the replayed instruction
+     */
+    public int nextInstruction() {
+        if (!hasNextInstruction()) {
+            throw new NoSuchElementException("trace is completely replayed");
+        }
+        opCode = trace.get();
+        instructionPointer += (int) getZigZag();
+        replayedInstructions++;
+        replayWrites();
+        return instructionPointer;
+    }
+
+    /**
+     * Replays all remaining instructions.
+     *
+     * @return number of replayed instructions
+     */
+    public long replayAll() {
+        long startCount = replayedInstructions;
+        while (hasNextInstruction()) {
+            nextInstruction();
+        }
+        return replayedInstructions - startCount;
+    }
+
+    private void replayWrites() {
+        while (trace.hasRemaining() && trace.get(trace.position()) == IntCodeTraceRecorder.WRITE_TAG) {
+            trace.get();
+            int address = previousWriteAddress + (int) getZigZag();
+            memory.setValueAt(address, memory.valueAt(address) + getZigZag());
+            previousWriteAddress = address;
+        }
+    }
+
+    private long getZigZag() {
+        long zigZag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = trace.get();
+            zigZag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+
+    public int getInstructionPointer() {
+        return instructionPointer;
+    }
+
+    public int getOpCode() {
+        return opCode;
+    }
+
+    public long getReplayedInstructions() {
+        return replayedInstructions;
+    }
+
+    public long valueAt(int address) {
+        return memory.valueAt(address);
+    }
+
+    public long[] getMemory() {
+        return memory.toArray();
+    }
+
+}
@@ -0,0 +1,129 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Growable FIFO queue of primitive {@code long} values backed by a power of two sized ring buffer.
+ */
+public class LongRingBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] values;
+    private int head = 0;
+    private int size = 0;
+
+
+    public LongRingBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongRingBuffer(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 1) * 2 - 1);
+        this.values = new long[capacity];
+    }
+
+
+    public void addLast(long value) {
+        ensureCapacity(size + 1);
+        values[(head + size) & mask()] = value;
+        size++;
+    }
+
+    public void addAll(long[] src) {
+        addAll(src, 0, src.length);
+    }
+
+    public void addAll(long[] src, int offset, int length) {
+        ensureCapacity(size + length);
+        int tail = (head + size) & mask();
+        int firstLength = Math.min(length, values.length - tail);
+        System.arraycopy(src, offset, values, tail, firstLength);
+        System.arraycopy(src, offset + firstLength, values, 0, length - firstLength);
+        size += length;
+    }
+
+
+    public long removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long value = values[head];
+        head = (head + 1) & mask();
+        size--;
+        return value;
+    }
+
+    public long getLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return values[(head + size - 1) & mask()];
+    }
+
+
+    /**
+     * Removes up to {@code dst.length} values from the head of this buffer into {@code dst}.
+     *
+     * @return number of values written into {@code dst}
+     */
+    public int drainTo(long[] dst) {
+        return drainTo(dst, 0, dst.length);
+    }
+
+    public int drainTo(long[] dst, int offset, int length) {
+        int count = Math.min(length, size);
+        int firstLength = Math.min(count, values.length - head);
+        System.arraycopy(values, head, dst, offset, firstLength);
+        System.arraycopy(values, 0, dst, offset + firstLength, count - firstLength);
+        head = (head + count) & mask();
+        size -= count;
+        return count;
+    }
+
+    public long[] toArray() {
+        long[] array = new long[size];
+        int firstLength = Math.min(size, values.length - head);
+        System.arraycopy(values, head, array, 0, firstLength);
+        System.arraycopy(values, 0, array, firstLength, size - firstLength);
+        return array;
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= values.length) {
+            return;
+        }
+        int newCapacity = Integer.highestOneBit(minCapacity - 1) << 1;
+        long[] newValues = toArray();
+        values = Arrays.copyOf(newValues, newCapacity);
+        head = 0;
+    }
+
+    private int mask() {
+        return values.length - 1;
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+}
@@ -0,0 +1,173 @@
+package de.adventofcode.chrisgw.intcode;
+
+import java.util.Arrays;
+
+
+/**
+ * Sparse memory, which keeps the initial program in one contiguous array and allocates fixed-size pages for
+ * addresses behind it only when they are written. Pages are grouped into lazily allocated directories, so a
+ * write to a far address allocates just one directory and one page.
+ */
+public class PagedIntCodeMemory implements IntCodeMemory {
+
+    static final int PAGE_SHIFT = 10;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int DIRECTORY_SHIFT = 10;
+    private static final int DIRECTORY_SIZE = 1 << DIRECTORY_SHIFT;
+    private static final int DIRECTORY_MASK = DIRECTORY_SIZE - 1;
+
+    static final int MAX_ARRAY_SIZE = 1 << 24; // 128 MB as dense long array
+
+    private long[] dense;
+    private boolean denseShared = false;
+
+    private long[][][] directories = new long[0][][];
+    private boolean[][] ownedPages = new boolean[0][];
+    private int size;
+
+
+    public PagedIntCodeMemory(long[] initialState) {
+        this.dense = Arrays.copyOf(initialState, initialState.length);
+        this.size = dense.length;
+    }
+
+    private PagedIntCodeMemory(PagedIntCodeMemory intCodeMemory) {
+        this.dense = intCodeMemory.dense;
+        this.denseShared = true;
+        this.directories = new long[intCodeMemory.directories.length][][];
+        for (int directoryIndex = 0; directoryIndex < directories.length; directoryIndex++) {
+            long[][] directory = intCodeMemory.directories[directoryIndex];
+            if (directory != null) {
+                directories[directoryIndex] = Arrays.copyOf(directory, directory.length);
+            }
+        }
+        this.ownedPages = new boolean[directories.length][];
+        this.size = intCodeMemory.size;
+    }
+
+
+    @Override
+    public long valueAt(int address) {
+        if (address < dense.length) {
+            return dense[address];
+        }
+        int pageNumber = address >>> PAGE_SHIFT;
+        int directoryIndex = pageNumber >>> DIRECTORY_SHIFT;
+        if (directoryIndex >= directories.length || directories[directoryIndex] == null) {
+            return 0;
+        }
+        long[] page = directories[directoryIndex][pageNumber & DIRECTORY_MASK];
+        if (page == null) {
+            return 0;
+        }
+        return page[address & PAGE_MASK];
+    }
+
+    @Override
+    public void setValueAt(int address, long value) {
+        if (address < dense.length) {
+            if (denseShared) {
+                dense = Arrays.copyOf(dense, dense.length);
+                denseShared = false;
+            }
+            dense[address] = value;
+            return;
+        }
+        if (address == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Can't access address behind the memory size limit: " + address);
+        }
+        long[] page = writablePage(address >>> PAGE_SHIFT);
+        page[address & PAGE_MASK] = value;
+        size = Math.max(size, address + 1);
+    }
+
+    private long[] writablePage(int pageNumber) {
+        int directoryIndex = pageNumber >>> DIRECTORY_SHIFT;
+        int pageIndex = pageNumber & DIRECTORY_MASK;
+        if (directoryIndex >= directories.length) {
+            directories = Arrays.copyOf(directories, directoryIndex + 1);
+            ownedPages = Arrays.copyOf(ownedPages, directoryIndex + 1);
+        }
+        if (directories[directoryIndex] == null) {
+            directories[directoryIndex] = new long[DIRECTORY_SIZE][];
+        }
+        if (ownedPages[directoryIndex] == null) {
+            ownedPages[directoryIndex] = new boolean[DIRECTORY_SIZE];
+        }
+
+        long[][] directory = directories[directoryIndex];
+        long[] page = directory[pageIndex];
+        if (page == null) {
+            page = new long[PAGE_SIZE];
+            directory[pageIndex] = page;
+            ownedPages[directoryIndex][pageIndex] = true;
+        } else if (!ownedPages[directoryIndex][pageIndex]) {
+            page = Arrays.copyOf(page, PAGE_SIZE);
+            directory[pageIndex] = page;
+            ownedPages[directoryIndex][pageIndex] = true;
+        }
+        return page;
+    }
+
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long[] toArray() {
+        if (size > MAX_ARRAY_SIZE) {
+            throw new IllegalStateException("Sparse memory of size " + size + " is too large for a dense array");
+        }
+        long[] memory = new long[size];
+        forEachPage((startAddress, values, offset, length) -> System.arraycopy(values, offset, memory, startAddress,
+                length));
+        return memory;
+    }
+
+    @Override
+    public void forEachPage(PageVisitor pageVisitor) {
+        pageVisitor.visitPage(0, dense, 0, dense.length);
+        for (int directoryIndex = 0; directoryIndex < directories.length; directoryIndex++) {
+            long[][] directory = directories[directoryIndex];
+            if (directory == null) {
+                continue;
+            }
+            for (int pageIndex = 0; pageIndex < DIRECTORY_SIZE; pageIndex++) {
+                long[] page = directory[pageIndex];
+                if (page == null) {
+                    continue;
+                }
+                int pageAddress = ((directoryIndex << DIRECTORY_SHIFT) | pageIndex) << PAGE_SHIFT;
+                int startAddress = Math.max(pageAddress, dense.length); // dense covers the head of the first page
+                int endAddress = (int) Math.min((long) pageAddress + PAGE_SIZE, size);
+                if (startAddress < endAddress) {
+                    pageVisitor.visitPage(startAddress, page, startAddress - pageAddress, endAddress - startAddress);
+                }
+            }
+        }
+    }
+
+
+    public int allocatedPageCount() {
+        int allocatedPageCount = 0;
+        for (long[][] directory : directories) {
+            if (directory != null) {
+                allocatedPageCount += (int) Arrays.stream(directory).filter(page -> page != null).count();
+            }
+        }
+        return allocatedPageCount;
+    }
+
+
+    @Override
+    public IntCodeMemory copyOnWrite() {
+        this.denseShared = true;
+        this.ownedPages = new boolean[directories.length][];
+        return new PagedIntCodeMemory(this);
+    }
+
+}
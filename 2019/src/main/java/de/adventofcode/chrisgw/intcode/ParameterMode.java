@@ -6,6 +6,8 @@ public enum ParameterMode {
     IMMEDIATE_MODE(1), //
     RELATIVE_MODE(2);
 
+    private static final ParameterMode[] PARAMETER_MODES = ParameterMode.values();
+
 
     private int code;
 
@@ -15,7 +17,7 @@ public enum ParameterMode {
     }
 
     public static ParameterMode forCode(int parameterModeCode) {
-        for (ParameterMode parameterMode : ParameterMode.values()) {
+        for (ParameterMode parameterMode : PARAMETER_MODES) {
             if (parameterMode.getCode() == parameterModeCode) {
                 return parameterMode;
             }
@@ -23,6 +25,10 @@ public enum ParameterMode {
         throw new IllegalArgumentException("Unknown parameter mode code: " + parameterModeCode);
     }
 
+    static ParameterMode forOrdinal(int ordinal) {
+        return PARAMETER_MODES[ordinal];
+    }
+
 
     public int getCode() {
         return code;
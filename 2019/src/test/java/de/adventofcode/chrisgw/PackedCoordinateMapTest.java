@@ -0,0 +1,68 @@
+package de.adventofcode.chrisgw;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class PackedCoordinateMapTest {
+
+    @Test
+    public void packedCoordinateMap_resizeKeepsAllCoordinates() {
+        PackedCoordinateMap coordinateMap = new PackedCoordinateMap();
+        for (int x = -50; x < 50; x++) {
+            for (int y = -25; y < 25; y++) {
+                coordinateMap.put(x, y, (byte) (x + 3 * y));
+            }
+        }
+
+        assertEquals("size", 100 * 50, coordinateMap.size());
+        for (int x = -50; x < 50; x++) {
+            for (int y = -25; y < 25; y++) {
+                assertEquals("coordinate " + x + "," + y, (byte) (x + 3 * y), coordinateMap.get(x, y, (byte) -1));
+            }
+        }
+        assertEquals("missing coordinate", -1, coordinateMap.get(50, 0, (byte) -1));
+    }
+
+    @Test
+    public void packedCoordinateMap_negativeCoordinatesAreDistinct() {
+        assertEquals("packed 0,-1", 0xFFFFFFFFL, PackedCoordinateMap.packedCoordinate(0, -1));
+        assertEquals("packed -1,0", 0xFFFFFFFF00000000L, PackedCoordinateMap.packedCoordinate(-1, 0));
+
+        PackedCoordinateMap coordinateMap = new PackedCoordinateMap();
+        coordinateMap.put(0, -1, (byte) 1);
+        coordinateMap.put(-1, 0, (byte) 2);
+        coordinateMap.put(-1, -1, (byte) 3);
+        coordinateMap.put(Integer.MIN_VALUE, Integer.MAX_VALUE, (byte) 4);
+        coordinateMap.put(Integer.MAX_VALUE, Integer.MIN_VALUE, (byte) 5);
+
+        assertEquals("size", 5, coordinateMap.size());
+        assertEquals("coordinate 0,-1", 1, coordinateMap.get(0, -1, (byte) 0));
+        assertEquals("coordinate -1,0", 2, coordinateMap.get(-1, 0, (byte) 0));
+        assertEquals("coordinate -1,-1", 3, coordinateMap.get(-1, -1, (byte) 0));
+        assertEquals("coordinate min,max", 4, coordinateMap.get(Integer.MIN_VALUE, Integer.MAX_VALUE, (byte) 0));
+        assertEquals("coordinate max,min", 5, coordinateMap.get(Integer.MAX_VALUE, Integer.MIN_VALUE, (byte) 0));
+        assertEquals("missing coordinate 0,0", 0, coordinateMap.get(0, 0, (byte) 0));
+    }
+
+    @Test
+    public void packedCoordinateMap_boundingBoxGrowsWithPutCoordinates() {
+        PackedCoordinateMap coordinateMap = new PackedCoordinateMap();
+        coordinateMap.put(2, 3, (byte) 1);
+        assertEquals("minX", 2, coordinateMap.getMinX());
+        assertEquals("maxX", 2, coordinateMap.getMaxX());
+        assertEquals("minY", 3, coordinateMap.getMinY());
+        assertEquals("maxY", 3, coordinateMap.getMaxY());
+
+        coordinateMap.put(-4, 7, (byte) 1);
+        coordinateMap.put(5, -1, (byte) 0);
+        coordinateMap.put(2, 3, (byte) 0); // overwriting keeps size and bounding box
+        assertEquals("size", 3, coordinateMap.size());
+        assertEquals("minX", -4, coordinateMap.getMinX());
+        assertEquals("maxX", 5, coordinateMap.getMaxX());
+        assertEquals("minY", -1, coordinateMap.getMinY());
+        assertEquals("maxY", 7, coordinateMap.getMaxY());
+    }
+
+}
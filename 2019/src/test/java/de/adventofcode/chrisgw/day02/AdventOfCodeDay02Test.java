@@ -1,7 +1,9 @@
 package de.adventofcode.chrisgw.day02;
 
 import de.adventofcode.chrisgw.TestUtils;
+import de.adventofcode.chrisgw.intcode.IntCodePolynomial;
 import de.adventofcode.chrisgw.intcode.IntCodeProgram;
+import de.adventofcode.chrisgw.intcode.IntCodeSymbolicEvaluator;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -96,4 +98,30 @@ public class AdventOfCodeDay02Test {
         assertEquals("restoreGravityAssistProgram", expectedResult, result);
     }
 
+
+    @Test
+    public void myPuzzleInput_symbolicOutputIsLinearInNounAndVerb() {
+        String intCodeProgrammStr = TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay02.txt");
+        IntCodeProgram intCodeProgram = IntCodeProgram.parseIntCodeProgram(intCodeProgrammStr);
+
+        IntCodeSymbolicEvaluator symbolicEvaluator = new IntCodeSymbolicEvaluator(intCodeProgram.getInitialState());
+        symbolicEvaluator.withVariable(1).withVariable(2).run();
+        assertFalse("isControlFlowSymbolic", symbolicEvaluator.isControlFlowSymbolic());
+
+        IntCodePolynomial output = symbolicEvaluator.valueAt(0);
+        assertEquals("degree in noun", 1, output.degreeIn(1));
+        assertEquals("degree in verb", 1, output.degreeIn(2));
+        assertEquals("output(12, 2)", 7594646, output.evaluate(address -> address == 1 ? 12 : 2));
+    }
+
+    @Test
+    public void symbolicEvaluator_reportsSymbolicJump() {
+        long[] initialState = new long[] { 1005, 9, 7, 104, 0, 99, 0, 104, 1, 99 };
+
+        IntCodeSymbolicEvaluator symbolicEvaluator = new IntCodeSymbolicEvaluator(initialState);
+        symbolicEvaluator.withVariable(9).run();
+        assertTrue("isControlFlowSymbolic", symbolicEvaluator.isControlFlowSymbolic());
+        assertFalse("isFinished", symbolicEvaluator.isFinished());
+    }
+
 }
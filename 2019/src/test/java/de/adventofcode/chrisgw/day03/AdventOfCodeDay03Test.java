@@ -120,4 +120,18 @@ public class AdventOfCodeDay03Test {
         assertEquals("distance", expectedDistance, distance);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void millionStepSegments() {
+        List<String> wirePaths = List.of( //
+                "R1000000,U10", //
+                "U5,R2000000");
+        GridPoint expectedClosesPoint = new GridPoint(1000000, 5);
+        int expectedSignalDistance = (1000000 + 5) + (5 + 1000000);
+
+        AdventOfCodeDay03 adventOfCodeDay03 = new AdventOfCodeDay03(wirePaths);
+        assertEquals("closesPoint", expectedClosesPoint, adventOfCodeDay03.closesIntersectionPoint());
+        assertEquals("signalDistance", expectedSignalDistance, adventOfCodeDay03.closesSignalIntersectionPoint());
+    }
+
+}
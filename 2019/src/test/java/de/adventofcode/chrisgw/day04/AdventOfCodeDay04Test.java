@@ -2,6 +2,8 @@ package de.adventofcode.chrisgw.day04;
 
 import org.junit.Test;
 
+import java.util.stream.LongStream;
+
 import static org.junit.Assert.*;
 
 
@@ -50,4 +52,29 @@ public class AdventOfCodeDay04Test {
         assertEquals("possiblePasswords", expectedPossiblePasswords, possiblePasswords);
     }
 
+
+    @Test
+    public void countPossiblePasswords_matchesBruteForce() {
+        long rangeFrom = 1;
+        long rangeTo = 1234567;
+        long expectedPart01 = LongStream.rangeClosed(rangeFrom, rangeTo)
+                .filter(AdventOfCodeDay04::isValidPassword)
+                .count();
+        long expectedPart02 = LongStream.rangeClosed(rangeFrom, rangeTo)
+                .filter(AdventOfCodeDay04::isValidPasswordPart02)
+                .count();
+
+        assertEquals("part01", expectedPart01, AdventOfCodeDay04.countPossiblePasswordsPart01(rangeFrom, rangeTo));
+        assertEquals("part02", expectedPart02, AdventOfCodeDay04.countPossiblePasswordsPart02(rangeFrom, rangeTo));
+    }
+
+    @Test
+    public void countPossiblePasswords_18Digits() {
+        // each never decreasing sequence of 18 digits 1-9 repeats a digit
+        long expectedPossiblePasswords = 1562275; // binomial(26, 8)
+        long possiblePasswords = AdventOfCodeDay04.countPossiblePasswordsPart01(100000000000000000L,
+                999999999999999999L);
+        assertEquals("possiblePasswords", expectedPossiblePasswords, possiblePasswords);
+    }
+
 }
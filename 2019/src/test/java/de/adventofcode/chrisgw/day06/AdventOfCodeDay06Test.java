@@ -3,6 +3,7 @@ package de.adventofcode.chrisgw.day06;
 import de.adventofcode.chrisgw.TestUtils;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -81,4 +82,23 @@ public class AdventOfCodeDay06Test {
         assertEquals("neededOrbitalTransfers", expectedNeededOrbitalTransfers, neededOrbitalTransfers);
     }
 
+
+    @Test
+    public void generatedDeepOrbitMap() {
+        int chainLength = 100000;
+        List<String> orbitMapLines = new ArrayList<>();
+        orbitMapLines.add("COM)O1");
+        for (int i = 2; i <= chainLength; i++) {
+            orbitMapLines.add("O" + (i - 1) + ")O" + i);
+        }
+        orbitMapLines.add("O50000)YOU");
+        orbitMapLines.add("O" + chainLength + ")SAN");
+        long expectedTotalOrbits = (long) chainLength * (chainLength + 1) / 2 + 50001 + (chainLength + 1);
+
+        AdventOfCodeDay06 aocDay06 = AdventOfCodeDay06.parseUniversalOrbitMap(orbitMapLines);
+        assertEquals("totalOrbits", expectedTotalOrbits, aocDay06.countTotalOrbits());
+        assertEquals("neededOrbitalTransfers", 50000, aocDay06.countNeededOrbitalTransfers());
+        assertEquals("neededOrbitalTransfers O3 to O7", 4, aocDay06.countNeededOrbitalTransfers("O3", "O7"));
+    }
+
 }
@@ -4,6 +4,9 @@ import de.adventofcode.chrisgw.TestUtils;
 import de.adventofcode.chrisgw.intcode.IntCodeProgram;
 import org.junit.Test;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.junit.Assert.*;
 
 
@@ -96,4 +99,60 @@ public class AdventOfCodeDay07Test {
         assertEquals("highestThrusterSignal", expectedHighestThrusterSignal, highestThrusterSignal);
     }
 
-}
\ No newline at end of file
+
+
+    // concurrent pipeline
+
+    @Test
+    public void myPuzzleInput_part01_concurrently() {
+        String intCodeProgrammStr = TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay07.txt");
+        long expectedHighestThrusterSignal = 262086;
+
+        IntCodeProgram controllerSoftware = IntCodeProgram.parseIntCodeProgram(intCodeProgrammStr);
+        AdventOfCodeDay07 aocDay07 = new AdventOfCodeDay07(controllerSoftware);
+        long highestThrusterSignal = aocDay07.findHighestThrusterSignalConcurrently();
+        assertEquals("highestThrusterSignal", expectedHighestThrusterSignal, highestThrusterSignal);
+    }
+
+    @Test
+    public void example04_part02_concurrently() {
+        long[] initialState = new long[] { 3, 26, 1001, 26, -4, 26, 3, 27, 1002, 27, 2, 27, 1, 27, 26, //
+                27, 4, 27, 1001, 28, -1, 28, 1005, 28, 6, 99, 0, 0, 5 };
+        long expectedHighestThrusterSignal = 139629729;
+
+        IntCodeProgram controllerSoftware = new IntCodeProgram(initialState);
+        AdventOfCodeDay07 aocDay07 = new AdventOfCodeDay07(controllerSoftware);
+        long highestThrusterSignal = aocDay07.findHighestThrusterSignalWithFeedbackLoopConcurrently();
+        assertEquals("highestThrusterSignal", expectedHighestThrusterSignal, highestThrusterSignal);
+    }
+
+    @Test
+    public void myPuzzleInput_part02_concurrently() {
+        String intCodeProgrammStr = TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay07.txt");
+        long expectedHighestThrusterSignal = 5371621;
+
+        IntCodeProgram controllerSoftware = IntCodeProgram.parseIntCodeProgram(intCodeProgrammStr);
+        AdventOfCodeDay07 aocDay07 = new AdventOfCodeDay07(controllerSoftware);
+        long highestThrusterSignal = aocDay07.findHighestThrusterSignalWithFeedbackLoopConcurrently();
+        assertEquals("highestThrusterSignal", expectedHighestThrusterSignal, highestThrusterSignal);
+    }
+
+    @Test(timeout = 10_000)
+    public void failingAmplifier_stopsPipeline() {
+        // amplifier with phase setting 1 jumps to the unknown opCode 77, all others wait for the feedback signal
+        long[] initialState = new long[] { 3, 100, 1008, 100, 1, 102, 1005, 102, 16, //
+                3, 101, 4, 101, 3, 101, 99, 77 };
+        IntCodeProgram controllerSoftware = new IntCodeProgram(initialState);
+        ThrusterAmplifierPipeline pipeline = new ThrusterAmplifierPipeline(controllerSoftware, 5);
+        ExecutorService amplifierExecutor = Executors.newCachedThreadPool();
+        try {
+            pipeline.runThruster(new int[] { 0, 1, 2, 3, 4 }, amplifierExecutor);
+            fail("expect failing thruster amplifier");
+        } catch (IllegalStateException e) {
+            assertTrue("failure cause", e.getCause() instanceof IllegalArgumentException);
+        } finally {
+            amplifierExecutor.shutdownNow();
+        }
+    }
+
+}
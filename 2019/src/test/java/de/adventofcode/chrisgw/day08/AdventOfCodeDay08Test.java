@@ -1,13 +1,23 @@
 package de.adventofcode.chrisgw.day08;
 
 import de.adventofcode.chrisgw.TestUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.Assert.*;
 
 
 public class AdventOfCodeDay08Test {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
     @Test
     public void example01_part01() {
         int wide = 3;
@@ -37,6 +47,31 @@ public class AdventOfCodeDay08Test {
     }
 
 
+    @Test
+    public void myPuzzleInput_part01_decodeImageFile() throws IOException {
+        String imageDataStr = TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay08.txt");
+        Path imageFile = temporaryFolder.newFile("puzzleInputDay08.txt").toPath();
+        Files.writeString(imageFile, imageDataStr + "\n");
+        int wide = 25;
+        int height = 6;
+        int expectedSolution = 1474;
+
+        AdventOfCodeDay08 aocDay08 = AdventOfCodeDay08.decodeImageFile(wide, height, imageFile);
+        int solution = aocDay08.calculatePart01();
+        assertEquals("solution part01", expectedSolution, solution);
+    }
+
+    @Test
+    public void layeredImageDecoder_rejectsPixelDataOutsideOfDigits() {
+        LayeredPixelImage layeredPixelImage = new LayeredPixelImage(2, 1, new int[] { 1, 10 });
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> LayeredImageDecoder.decode(layeredPixelImage));
+        assertEquals("message", "unknown pixelData: 10", exception.getMessage());
+    }
+
+
+
     // part 02
 
     @Test
@@ -67,4 +67,17 @@ public class AdventOfCodeDay09Test {
         assertEquals("boostKeycode", expectedBoostKeycode, boostKeycode);
     }
 
+
+    @Test
+    public void myPuzzleInput_part02_compiled() {
+        String intCodeProgrammStr = TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay09.txt");
+        long expectedBoostKeycode = 51135L;
+
+        IntCodeProgram boostProgram = IntCodeProgram.parseIntCodeProgram(intCodeProgrammStr);
+        boostProgram.enableCompilation();
+        long boostKeycode = AdventOfCodeDay09.runBoostProgramInBoostMode(boostProgram);
+        assertEquals("boostKeycode", expectedBoostKeycode, boostKeycode);
+        assertTrue("isCompiled", boostProgram.isCompiled());
+    }
+
 }
@@ -151,6 +151,25 @@ public class AdventOfCodeDay10Test {
         assertEquals("visibleAsteroidCount", expectedVisibleAsteroidCount, monitoringStation.visibleAsteroidCount());
     }
 
+    @Test
+    public void nonSquareMap_part01() {
+        List<String> asteroidMap = List.of( //
+                "#.#.#.#", //
+                ".......", //
+                "#..#..#");
+
+        AdventOfCodeDay10 aocDay10 = new AdventOfCodeDay10(asteroidMap);
+        assertEquals("width", 7, aocDay10.width());
+        assertEquals("height", 3, aocDay10.height());
+        assertTrue("asteroid at 6,2", aocDay10.asteroidAt(6, 2).isAsteroid());
+        assertNull("location 2,6", aocDay10.asteroidAt(2, 6));
+        assertEquals("map", String.join("\n", asteroidMap) + "\n", aocDay10.toString());
+
+        AsteroidMapLocation monitoringStation = aocDay10.findBestMonitoringStationLocation();
+        assertThat("monitoringStation", monitoringStation, allOf(hasProperty("x", is(3)), hasProperty("y", is(2))));
+        assertEquals("visibleAsteroidCount", 6, monitoringStation.visibleAsteroidCount());
+    }
+
 
     // part 02
 
@@ -214,6 +233,26 @@ public class AdventOfCodeDay10Test {
     }
 
 
+    @Test
+    public void severalAsteroidsInOneDirection_part02() {
+        List<String> asteroidMap = List.of( //
+                "..#....", //
+                "..#.#..", //
+                "..#....", //
+                ".......", //
+                "..#.#..");
+
+        AdventOfCodeDay10 aocDay10 = new AdventOfCodeDay10(asteroidMap);
+        AsteroidMapLocation laserLocation = aocDay10.asteroidAt(2, 4);
+        List<AsteroidMapLocation> vaporizedAsteroids = aocDay10.visibilityIndex().vaporizationOrder(laserLocation);
+
+        List<AsteroidMapLocation> expectedVaporizedAsteroids = List.of(aocDay10.asteroidAt(2, 2),
+                aocDay10.asteroidAt(4, 1), aocDay10.asteroidAt(4, 4), aocDay10.asteroidAt(2, 1),
+                aocDay10.asteroidAt(2, 0));
+        assertEquals("vaporizedAsteroids", expectedVaporizedAsteroids, vaporizedAsteroids);
+    }
+
+
     @Test
     public void myPuzzleInput_part02() {
         List<String> asteroidMap = TestUtils.readAllLinesOfClassPathResource("/puzzleInputDay10.txt");
@@ -107,6 +107,22 @@ public class AdventOfCodeDay12Test {
                 neededStepsForSystemSameState);
     }
 
+    @Test
+    public void fiveMoons_part02_findNeededStepsForSystemSameState() {
+        List<String> moonLocations = List.of( //
+                "<x=1, y=0, z=2>", //
+                "<x=-1, y=3, z=0>", //
+                "<x=2, y=-1, z=-2>", //
+                "<x=0, y=1, z=1>", //
+                "<x=-2, y=0, z=3>");
+        long expectedNeededStepsForSystemSameState = 36;
+
+        AdventOfCodeDay12 moonSystem = AdventOfCodeDay12.parseMoonPositions(moonLocations);
+        long neededStepsForSystemSameState = moonSystem.findNeededStepsForSystemSameState();
+        assertEquals("neededStepsForSystemSameState", expectedNeededStepsForSystemSameState,
+                neededStepsForSystemSameState);
+    }
+
     @Test
     public void myPuzzleInput_part02_findNeededStepsForSystemSameState() {
         List<String> moonLocations = TestUtils.readAllLinesOfClassPathResource("/puzzleInputDay12.txt");
@@ -22,6 +22,35 @@ public class AdventOfCodeDay13Test {
     }
 
 
+    @Test
+    public void joystickInput_towardsBall() {
+        assertEquals("ball right of paddle", JoystickInput.TILTED_RIGHT, JoystickInput.towards(2, 40));
+        assertEquals("ball left of paddle", JoystickInput.TILTED_LEFT, JoystickInput.towards(40, 2));
+        assertEquals("ball above paddle", JoystickInput.NEUTRAL_POSITION, JoystickInput.towards(7, 7));
+    }
+
+    @Test
+    public void autoplay_tracksBallAndPaddleBetweenFrames() {
+        // draws paddle, ball and one block, reads joystick a, moves the ball left and clears the block,
+        // reads joystick b and finishes with score 10 * a + b
+        IntCodeProgram arcadeCabinetProgram = new IntCodeProgram(new long[] { //
+                104, 2, 104, 20, 104, 3, 104, 5, 104, 10, 104, 4, 104, 1, 104, 1, 104, 2, 104, -1, 104, 0, 104, 0,
+                3, 55, //
+                104, 1, 104, 10, 104, 4, 104, 1, 104, 1, 104, 0, //
+                3, 56, //
+                1002, 55, 10, 57, 1, 57, 56, 58, 104, -1, 104, 0, 4, 58, 99, //
+                0, 0, 0, 0 });
+        ArcadeCabinet arcadeCabinet = new ArcadeCabinet(arcadeCabinetProgram);
+
+        long playerScore = arcadeCabinet.autoplay();
+        assertEquals("playerScore", 10 * JoystickInput.TILTED_RIGHT.getCode() + JoystickInput.TILTED_LEFT.getCode(),
+                playerScore);
+        assertEquals("ballPosition", 1, arcadeCabinet.ballPostion());
+        assertEquals("horizontalPaddlePosition", 2, arcadeCabinet.horizontalPaddlePosition());
+        assertTrue("isGameWin", arcadeCabinet.isGameWin());
+    }
+
+
     @Test
     public void myPuzzleInput_part02() {
         String intCodeProgrammStr = TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay13.txt");
@@ -33,4 +62,17 @@ public class AdventOfCodeDay13Test {
         assertEquals("countWinningScore", expectedCountWinningScore, countWinningScore);
     }
 
+
+    @Test
+    public void myPuzzleInput_part02_compiled() {
+        String intCodeProgrammStr = TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay13.txt");
+        IntCodeProgram arcadeCabinetProgram = IntCodeProgram.parseIntCodeProgram(intCodeProgrammStr);
+        arcadeCabinetProgram.enableCompilation();
+        ArcadeCabinet arcadeCabinet = new ArcadeCabinet(arcadeCabinetProgram);
+        long expectedCountWinningScore = 13824;
+
+        long countWinningScore = AdventOfCodeDay13.countWinningScore(arcadeCabinet);
+        assertEquals("countWinningScore", expectedCountWinningScore, countWinningScore);
+    }
+
 }
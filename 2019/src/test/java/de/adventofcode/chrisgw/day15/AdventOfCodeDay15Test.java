@@ -19,4 +19,16 @@ public class AdventOfCodeDay15Test {
         assertEquals("shortestDistanceToOxygenSystem", expectedDistance, distance);
     }
 
+
+
+    @Test
+    public void myPuzzleInput_part02_neededTimeForOxygenToSpread() {
+        String repairDroidProgramStr = TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay15.txt");
+        int expectedNeededTime = 392;
+
+        AdventOfCodeDay15 aoc15 = new AdventOfCodeDay15(repairDroidProgramStr);
+        int neededTime = aoc15.neededTimeForOxygenToSpread();
+        assertEquals("neededTimeForOxygenToSpread", expectedNeededTime, neededTime);
+    }
+
 }
@@ -48,4 +48,78 @@ public class AdventOfCodeDay17Test {
                 sumOfCameraAlignmentParameters);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void example02_part02_completePath() {
+        String cameraImageStr = "" //
+                + "#######...#####\n" //
+                + "#.....#...#...#\n" //
+                + "#.....#...#...#\n" //
+                + "......#...#...#\n" //
+                + "......#...###.#\n" //
+                + "......#.....#.#\n" //
+                + "^########...#.#\n" //
+                + "......#.#...#.#\n" //
+                + "......#########\n" //
+                + "........#...#..\n" //
+                + "....#########..\n" //
+                + "....#...#......\n" //
+                + "....#...#......\n" //
+                + "....#...#......\n" //
+                + "....#####......\n";
+        IntCodeProgram asciiProgram = IntCodeProgram.parseIntCodeProgram(
+                TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay17.txt"));
+        String expectedCompletePath = "R,8,R,8,R,4,R,4,R,8,L,6,L,2,R,4,R,4,R,8,R,8,R,8,L,6,L,2";
+
+        AdventOfCodeDay17 aoc17 = new AdventOfCodeDay17(asciiProgram);
+        aoc17.withCameraImage(cameraImageStr);
+        RobotMovementFunction completePath = aoc17.completePath();
+        MovementRoutines movementRoutines = aoc17.compressMovementRoutines();
+
+        assertEquals("completePath", expectedCompletePath, completePath.toAsciiCode());
+        assertEquals("expandedMainRoutine", expectedCompletePath, expandMainRoutine(movementRoutines));
+        assertTrue("mainRoutine fits memory",
+                movementRoutines.mainRoutineAsciiCode().length() <= RobotMovementFunction.MAX_ASCII_LENGTH);
+        movementRoutines.getMovementFunctions()
+                .forEach(movementFunction -> assertFalse("movementFunction is full", movementFunction.isFull()));
+    }
+
+    private static String expandMainRoutine(MovementRoutines movementRoutines) {
+        RobotMovementFunction expandedPath = new RobotMovementFunction("expandedPath");
+        for (String functionName : movementRoutines.getMainRoutine()) {
+            movementRoutines.getMovementFunctions()
+                    .stream()
+                    .filter(movementFunction -> movementFunction.getFunctionName().equals(functionName))
+                    .forEach(movementFunction -> movementFunction.getRobotMovements()
+                            .forEach(expandedPath::addRobotMovement));
+        }
+        return expandedPath.toAsciiCode();
+    }
+
+
+    @Test
+    public void followScaffold_robotStartsFacingAwayFromScaffold() {
+        String cameraImageStr = "" //
+                + "<###\n" //
+                + "...#\n" //
+                + "...#\n";
+
+        VacuumRobot vacuumRobot = new VacuumRobot(new ScaffoldGrid(cameraImageStr));
+        RobotMovementFunction completePath = vacuumRobot.followScaffold();
+        assertEquals("completePath", "R,R,3,R,2", completePath.toAsciiCode());
+    }
+
+
+    @Test
+    public void myPuzzleInput_part02_visitScaffoldAtLeastOnce() {
+        IntCodeProgram asciiProgram = IntCodeProgram.parseIntCodeProgram(
+                TestUtils.readSingleLineOfClassPathResource("/puzzleInputDay17.txt"));
+        long expectedCollectedSpaceDust = 942367;
+
+        AdventOfCodeDay17 aoc17 = new AdventOfCodeDay17(asciiProgram);
+        long collectedSpaceDust = aoc17.visitScaffoldAtLeastOnce();
+
+        assertEquals("collectedSpaceDust", expectedCollectedSpaceDust, collectedSpaceDust);
+    }
+
+}
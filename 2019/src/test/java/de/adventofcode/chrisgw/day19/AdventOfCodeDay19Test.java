@@ -31,6 +31,7 @@ public class AdventOfCodeDay19Test {
         AdventOfCodeDay19 aocDay19 = new AdventOfCodeDay19(droneProgram);
         long location = aocDay19.findShip(shipSize);
         assertEquals("location", expectedLocation, location);
+        assertTrue("probeCount " + aocDay19.getProbeCount(), aocDay19.getProbeCount() < 1000);
     }
 
 }
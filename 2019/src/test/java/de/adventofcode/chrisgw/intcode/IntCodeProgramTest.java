@@ -0,0 +1,409 @@
+package de.adventofcode.chrisgw.intcode;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.*;
+
+
+public class IntCodeProgramTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    // adds input to address 20 and outputs the sum, until input is 0
+    private static final long[] SUMMING_PROGRAM = new long[] { //
+            3, 19, 1, 19, 20, 20, 4, 20, 1005, 19, 0, 99, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+    // sends (address, 10 * address) to 255 after boot and forwards every received packet to 255
+    private static final long[] NIC_PROGRAM = new long[] { //
+            3, 100, 1002, 100, 10, 101, 104, 255, 4, 100, 4, 101, //
+            3, 102, 1008, 102, -1, 103, 1005, 103, 12, 3, 104, //
+            104, 255, 4, 102, 4, 104, 1105, 1, 12, 99 };
+
+
+    @Test
+    public void decodedOpCode_ignoresModeDigitsOfUnusedParameters() {
+        IntCodeProgram intCodeProgram = new IntCodeProgram(new long[] { 50104, 42, 99 });
+        intCodeProgram.run();
+        assertEquals("output", 42, intCodeProgram.nextOutput());
+        assertTrue("finished", intCodeProgram.isFinished());
+    }
+
+    @Test
+    public void decodedOpCode_isDecodedAgainAfterCodeWasWritten() {
+        // outputs 11 immediate, overwrites its first instruction with the next input and jumps back to it
+        IntCodeProgram intCodeProgram = new IntCodeProgram(new long[] { 104, 11, 3, 0, 1105, 1, 0, 0, 0, 0, 0, 77 });
+        intCodeProgram.addInputs(4, 99);
+        intCodeProgram.run();
+        assertArrayEquals("outputs", new long[] { 11, 77 }, intCodeProgram.getAllOutput().toArray());
+        assertTrue("finished", intCodeProgram.isFinished());
+    }
+
+
+    @Test
+    public void fork_continuesIndependently() {
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        intCodeProgram.addInput(5);
+        intCodeProgram.run();
+        assertEquals("output before fork", 5, intCodeProgram.nextOutput());
+
+        IntCodeProgram forkedProgram = intCodeProgram.fork();
+        intCodeProgram.addInput(1);
+        intCodeProgram.run();
+        forkedProgram.addInput(10);
+        forkedProgram.run();
+
+        assertEquals("output of original", 6, intCodeProgram.nextOutput());
+        assertEquals("output of fork", 15, forkedProgram.nextOutput());
+        assertEquals("original memory", 6, intCodeProgram.valueAt(20));
+        assertEquals("forked memory", 15, forkedProgram.valueAt(20));
+    }
+
+    @Test
+    public void restore_resumesFromSnapshot() {
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        intCodeProgram.addInput(7);
+        intCodeProgram.run();
+        IntCodeSnapshot snapshot = intCodeProgram.snapshot();
+
+        intCodeProgram.addInput(3);
+        intCodeProgram.addInput(0);
+        intCodeProgram.run();
+        assertTrue("finished", intCodeProgram.isFinished());
+
+        intCodeProgram.restore(snapshot);
+        assertFalse("finished after restore", intCodeProgram.isFinished());
+        assertEquals("pending output after restore", 7, intCodeProgram.nextOutput());
+        intCodeProgram.addInput(2);
+        intCodeProgram.run();
+        assertEquals("output after restore", 9, intCodeProgram.nextOutput());
+    }
+
+
+
+    @Test
+    public void pagedMemory_farAddressAllocatesSinglePage() {
+        int farAddress = 100_000_000;
+        PagedIntCodeMemory memory = new PagedIntCodeMemory(new long[] { 1, 2, 3 });
+        memory.setValueAt(farAddress, 42);
+
+        assertEquals("far value", 42, memory.valueAt(farAddress));
+        assertEquals("unwritten value", 0, memory.valueAt(farAddress - 1));
+        assertEquals("dense value", 2, memory.valueAt(1));
+        assertEquals("size", farAddress + 1, memory.size());
+        assertEquals("allocatedPageCount", 1, memory.allocatedPageCount());
+    }
+
+    @Test
+    public void pagedMemory_farAddressIsNotConvertedToDenseArray() {
+        int farAddress = 100_000_000;
+        IntCodeProgram intCodeProgram = new IntCodeProgram(new long[] { 1, 2, 3 });
+        intCodeProgram.setValueAt(5, 4);
+        intCodeProgram.setValueAt(farAddress, 42);
+
+        String memoryStr = intCodeProgram.toString();
+        int farPageAddress = farAddress / PagedIntCodeMemory.PAGE_SIZE * PagedIntCodeMemory.PAGE_SIZE;
+        assertTrue("dense and first page", memoryStr.startsWith("[1, 2, 3], 3: [0, 0, 4, 0, "));
+        assertTrue("far page", memoryStr.contains("], " + farPageAddress + ": [0, 0, "));
+        assertTrue("far value", memoryStr.endsWith(", 42]"));
+        assertTrue("length of two pages", memoryStr.length() < 4 * 3 * PagedIntCodeMemory.PAGE_SIZE);
+        assertThrows(IllegalStateException.class, intCodeProgram::getMemory);
+    }
+
+    @Test
+    public void pagedMemory_rejectsLastAddress() {
+        PagedIntCodeMemory memory = new PagedIntCodeMemory(new long[] { 1, 2, 3 });
+        assertThrows(IllegalArgumentException.class, () -> memory.setValueAt(Integer.MAX_VALUE, 1));
+        assertEquals("size", 3, memory.size());
+    }
+
+    @Test
+    public void pagedMemory_copyOnWriteSharesPagesUntilWritten() {
+        PagedIntCodeMemory memory = new PagedIntCodeMemory(new long[] { 1, 2, 3 });
+        memory.setValueAt(5000, 7);
+        IntCodeMemory copy = memory.copyOnWrite();
+
+        copy.setValueAt(5000, 8);
+        copy.setValueAt(0, 9);
+        memory.setValueAt(5001, 10);
+
+        assertEquals("original page", 7, memory.valueAt(5000));
+        assertEquals("original dense", 1, memory.valueAt(0));
+        assertEquals("copied page", 8, copy.valueAt(5000));
+        assertEquals("copied dense", 9, copy.valueAt(0));
+        assertEquals("write after copy", 0, copy.valueAt(5001));
+    }
+
+    @Test
+    public void denseMemory_runsProgram() {
+        long[] initialState = new long[] { 1, 1, 1, 4, 99, 5, 6, 0, 99 };
+        long[] expectedFinalMemoryState = new long[] { 30, 1, 1, 4, 2, 5, 6, 0, 99 };
+
+        IntCodeProgram intCodeProgram = new IntCodeProgram(initialState, Arrays.asList(IntCodeIntstruction.values()),
+                DenseIntCodeMemory::new);
+        intCodeProgram.run();
+        assertArrayEquals("memory", expectedFinalMemoryState, intCodeProgram.getMemory());
+    }
+
+
+    @Test
+    public void longRingBuffer_drainsAcrossWrapAround() {
+        LongRingBuffer ringBuffer = new LongRingBuffer(4);
+        ringBuffer.addAll(new long[] { 1, 2, 3 });
+        assertEquals("removeFirst", 1, ringBuffer.removeFirst());
+        assertEquals("removeFirst", 2, ringBuffer.removeFirst());
+        ringBuffer.addAll(new long[] { 4, 5, 6, 7 });
+        assertEquals("getLast", 7, ringBuffer.getLast());
+
+        long[] dst = new long[3];
+        assertEquals("first drain count", 3, ringBuffer.drainTo(dst));
+        assertArrayEquals("first drain", new long[] { 3, 4, 5 }, dst);
+        assertEquals("second drain count", 2, ringBuffer.drainTo(dst));
+        assertEquals("drained value", 7, dst[1]);
+        assertTrue("isEmpty", ringBuffer.isEmpty());
+    }
+
+
+    @Test
+    public void compiled_fallsBackToInterpreterOnWriteIntoCode() {
+        long[] initialState = new long[] { 1, 1, 1, 4, 99, 5, 6, 0, 99 };
+        long[] expectedFinalMemoryState = new long[] { 30, 1, 1, 4, 2, 5, 6, 0, 99 };
+
+        IntCodeProgram intCodeProgram = new IntCodeProgram(initialState);
+        intCodeProgram.enableCompilation();
+        intCodeProgram.run();
+        assertArrayEquals("memory", expectedFinalMemoryState, intCodeProgram.getMemory());
+        assertFalse("isCompiled", intCodeProgram.isCompiled());
+    }
+
+    @Test
+    public void compiled_waitsForInput() {
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        intCodeProgram.enableCompilation();
+        intCodeProgram.run();
+        assertTrue("isWaitingForNextInput", intCodeProgram.isWaitingForNextInput());
+
+        intCodeProgram.addInputs(4, 5, 0);
+        intCodeProgram.run();
+        assertArrayEquals("outputs", new long[] { 4, 9, 9 }, intCodeProgram.getAllOutput().toArray());
+        assertTrue("isFinished", intCodeProgram.isFinished());
+        assertTrue("isCompiled", intCodeProgram.isCompiled());
+    }
+
+    @Test
+    public void compiled_copyStaysCompiled() {
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        intCodeProgram.enableCompilation();
+
+        IntCodeProgram copiedProgram = new IntCodeProgram(intCodeProgram);
+        assertTrue("isCompiled", copiedProgram.isCompiled());
+        copiedProgram.addInputs(4, 5, 0);
+        copiedProgram.run();
+        assertArrayEquals("outputs", new long[] { 4, 9, 9 }, copiedProgram.getAllOutput().toArray());
+        assertTrue("isCompiled after run", copiedProgram.isCompiled());
+    }
+
+
+    @Test
+    public void profiler_countsInstructionsJumpsAndStalls() {
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        IntCodeProfiler profiler = new IntCodeProfiler();
+        intCodeProgram.setExecutionListener(profiler);
+        intCodeProgram.run();
+        intCodeProgram.addInputs(5, 0);
+        intCodeProgram.run();
+
+        assertEquals("executedInstructions", 9, profiler.getExecutedInstructions());
+        assertEquals("INPUT count", 2, profiler.instructionCount(IntCodeIntstruction.INPUT));
+        assertEquals("EXIT count", 1, profiler.instructionCount(IntCodeIntstruction.EXIT));
+        assertEquals("address 0 count", 2, profiler.addressCount(0));
+        assertEquals("jumpTakenCount", 1, profiler.jumpTakenCount(8));
+        assertEquals("jumpNotTakenCount", 1, profiler.jumpNotTakenCount(8));
+        assertEquals("jumpTakenRatio", 0.5, profiler.jumpTakenRatio(8), 1e-9);
+        assertEquals("inputWaitStalls", 1, profiler.getInputWaitStalls());
+        assertEquals("peakMemorySize", SUMMING_PROGRAM.length, profiler.getPeakMemorySize());
+        assertArrayEquals("hotAddresses", new int[] { 0 }, profiler.hotAddresses(1));
+        assertTrue("csv", profiler.toCsv().contains("jumpTaken,8,1\n"));
+        assertTrue("json", profiler.toJson().contains("\"8\":{\"taken\":1,\"notTaken\":1}"));
+    }
+
+
+    @Test
+    public void batchExecutor_keepsOrderOfInputVectors() {
+        IntCodeBatchExecutor batchExecutor = new IntCodeBatchExecutor(new IntCodeProgram(SUMMING_PROGRAM));
+        List<long[]> outputs = batchExecutor.runAll(
+                LongStream.rangeClosed(1, 1000).mapToObj(n -> new long[] { n, n, 0 }));
+
+        assertEquals("output count", 1000, outputs.size());
+        for (int n = 1; n <= outputs.size(); n++) {
+            assertArrayEquals("outputs for " + n, new long[] { n, 2L * n, 2L * n }, outputs.get(n - 1));
+        }
+    }
+
+    @Test
+    public void batchExecutor_findFirstStopsAtLowestMatch() {
+        IntCodeBatchExecutor batchExecutor = new IntCodeBatchExecutor(new IntCodeProgram(SUMMING_PROGRAM));
+        int taskCount = 1_000_000;
+        AtomicInteger runCount = new AtomicInteger();
+        OptionalInt firstMatch = batchExecutor.findFirst(taskCount, (program, task) -> {
+            runCount.incrementAndGet();
+            program.addInputs(task, 0);
+        }, program -> program.lastOutput() % 1000 == 999);
+
+        assertEquals("firstMatch", OptionalInt.of(999), firstMatch);
+        assertTrue("cancelled remaining runs", runCount.get() < taskCount);
+    }
+
+
+
+    @Test
+    public void network_routesPacketsToNatUntilIdle() {
+        List<IntCodePacket> natPackets = new ArrayList<>();
+        IntCodeNetwork network = new IntCodeNetwork(new IntCodeProgram(NIC_PROGRAM), 5);
+        network.setNat(new IntCodeNetworkNat() {
+
+            @Override
+            public void receive(IntCodeNetwork network, IntCodePacket packet) {
+                natPackets.add(packet);
+            }
+
+            @Override
+            public boolean onIdle(IntCodeNetwork network) {
+                if (natPackets.size() > network.size()) {
+                    return false;
+                }
+                network.sendPacket(new IntCodePacket(3, 7, 8));
+                return true;
+            }
+        });
+        network.run();
+
+        assertEquals("nat packet count", 6, natPackets.size());
+        assertEquals("boot packet of 4", new IntCodePacket(255, 4, 40), natPackets.get(4));
+        assertEquals("forwarded packet", new IntCodePacket(255, 7, 8), natPackets.get(5));
+        assertTrue("waiting computer", network.computerAt(3).isWaitingForNextInput());
+    }
+
+
+    @Test
+    public void checkpoint_restoresStateAndPendingQueues() throws IOException {
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        intCodeProgram.addInput(5);
+        intCodeProgram.run();
+        intCodeProgram.addInput(3);
+        Path checkpointFile = temporaryFolder.newFile("summing.checkpoint").toPath();
+        intCodeProgram.writeCheckpoint(checkpointFile);
+
+        IntCodeProgram restoredProgram = IntCodeProgram.readCheckpoint(checkpointFile);
+        assertEquals("instruction pointer", intCodeProgram.getInstructionPointer(),
+                restoredProgram.getInstructionPointer());
+        assertArrayEquals("memory", intCodeProgram.getMemory(), restoredProgram.getMemory());
+        assertArrayEquals("initial state", SUMMING_PROGRAM, restoredProgram.getInitialState());
+        restoredProgram.addInput(0);
+        restoredProgram.run();
+        assertArrayEquals("outputs", new long[] { 5, 8, 8 }, restoredProgram.getAllOutput().toArray());
+        assertTrue("finished", restoredProgram.isFinished());
+    }
+
+    @Test
+    public void checkpoint_farWriteStoresOnlyBackedPages() throws IOException {
+        int farAddress = 100_000_000;
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        intCodeProgram.setValueAt(1, 7);
+        intCodeProgram.setValueAt(SUMMING_PROGRAM.length + 4, 5);
+        intCodeProgram.setValueAt(farAddress, 42);
+        intCodeProgram.setValueAt(farAddress + 1, 43);
+        Path checkpointFile = temporaryFolder.newFile("far.checkpoint").toPath();
+        intCodeProgram.writeCheckpoint(checkpointFile);
+        assertTrue("checkpoint size", Files.size(checkpointFile) < 512);
+
+        IntCodeProgram restoredProgram = IntCodeProgram.readCheckpoint(checkpointFile);
+        assertEquals("memory size", farAddress + 2, restoredProgram.memorySize());
+        assertEquals("changed dense value", 7, restoredProgram.valueAt(1));
+        assertEquals("unchanged dense value", 19, restoredProgram.valueAt(3));
+        assertEquals("value behind dense", 5, restoredProgram.valueAt(SUMMING_PROGRAM.length + 4));
+        assertEquals("far value", 42, restoredProgram.valueAt(farAddress));
+        assertEquals("far value + 1", 43, restoredProgram.valueAt(farAddress + 1));
+        assertEquals("unwritten value", 0, restoredProgram.valueAt(farAddress - 1));
+    }
+
+
+    @Test
+    public void traceRecorder_replaysMemoryWithoutExecution() throws IOException {
+        Path traceFile = temporaryFolder.newFile("summing.trace").toPath();
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        IntCodeProfiler intCodeProfiler = new IntCodeProfiler();
+        try (IntCodeTraceRecorder traceRecorder = new IntCodeTraceRecorder(traceFile, 64)) {
+            intCodeProgram.setExecutionListener(traceRecorder);
+            intCodeProgram.setValueAt(19, 1000);
+            intCodeProgram.addInputs(LongStream.rangeClosed(1, 200).toArray());
+            intCodeProgram.run();
+            intCodeProgram.setExecutionListener(intCodeProfiler);
+            intCodeProgram.run();
+        }
+
+        IntCodeTraceReplayer traceReplayer = new IntCodeTraceReplayer(traceFile);
+        assertEquals("address 19 before first instruction", 1000, traceReplayer.valueAt(19));
+        assertEquals("first instruction pointer", 0, traceReplayer.nextInstruction());
+        assertEquals("first op code", IntCodeIntstruction.INPUT.opCode(), traceReplayer.getOpCode());
+        assertEquals("replayed instructions", 4 * 200, 1 + traceReplayer.replayAll());
+        assertEquals("sum", 200 * 201 / 2, traceReplayer.valueAt(20));
+        assertArrayEquals("memory", intCodeProgram.getMemory(), traceReplayer.getMemory());
+    }
+
+    @Test
+    public void traceRecorder_headerStoresOnlyBackedPages() throws IOException {
+        int farAddress = 100_000_000;
+        Path traceFile = temporaryFolder.newFile("far.trace").toPath();
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        intCodeProgram.setValueAt(farAddress, 42);
+        try (IntCodeTraceRecorder traceRecorder = new IntCodeTraceRecorder(traceFile, 64)) {
+            intCodeProgram.setExecutionListener(traceRecorder);
+            intCodeProgram.addInputs(1, 2);
+            intCodeProgram.run();
+        }
+        assertTrue("trace size", Files.size(traceFile) < 512);
+
+        IntCodeTraceReplayer traceReplayer = new IntCodeTraceReplayer(traceFile);
+        assertEquals("far value before first instruction", 42, traceReplayer.valueAt(farAddress));
+        traceReplayer.replayAll();
+        assertEquals("sum", 3, traceReplayer.valueAt(20));
+        assertEquals("far value", 42, traceReplayer.valueAt(farAddress));
+    }
+
+    @Test
+    public void traceReplayer_stopsAtRecordsLength() throws IOException {
+        Path traceFile = temporaryFolder.newFile("padded.trace").toPath();
+        IntCodeProgram intCodeProgram = new IntCodeProgram(SUMMING_PROGRAM);
+        IntCodeTraceRecorder traceRecorder = new IntCodeTraceRecorder(traceFile, 64);
+        intCodeProgram.setExecutionListener(traceRecorder);
+        intCodeProgram.addInputs(1, 2);
+        intCodeProgram.run();
+        try {
+            new IntCodeTraceReplayer(traceFile);
+            fail("expect unclosed trace to be rejected");
+        } catch (IOException e) {
+            assertTrue("unclosed trace", e.getMessage().startsWith("Incomplete IntCode trace"));
+        }
+
+        traceRecorder.close();
+        Files.write(traceFile, new byte[64], StandardOpenOption.APPEND); // zeros read like write records
+        IntCodeTraceReplayer traceReplayer = new IntCodeTraceReplayer(traceFile);
+        assertEquals("replayed instructions", traceRecorder.getRecordedInstructions(), traceReplayer.replayAll());
+        assertEquals("sum", 3, traceReplayer.valueAt(20));
+    }
+
+}